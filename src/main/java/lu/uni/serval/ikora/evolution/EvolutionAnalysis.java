@@ -22,6 +22,7 @@ package lu.uni.serval.ikora.evolution;
 
 import lu.uni.serval.commons.git.exception.InvalidGitRepositoryException;
 import lu.uni.serval.ikora.evolution.configuration.EvolutionConfiguration;
+import lu.uni.serval.ikora.evolution.export.Checkpoint;
 import lu.uni.serval.ikora.evolution.export.EvolutionExport;
 import lu.uni.serval.ikora.evolution.export.ExporterFactory;
 import org.apache.commons.cli.*;
@@ -31,18 +32,22 @@ import lu.uni.serval.ikora.evolution.configuration.ConfigurationParser;
 import org.eclipse.jgit.api.errors.GitAPIException;
 
 import java.io.*;
+import java.util.Collections;
 
 public class EvolutionAnalysis {
     private static final Logger logger = LogManager.getLogger(EvolutionAnalysis.class);
 
     private static final String CONFIG_OPTION = "config";
+    private static final String RESUME_OPTION = "resume";
 
     public static void main(String[] args) throws InterruptedException {
         try{
-            final EvolutionConfiguration configuration = getConfiguration(args);
+            final CommandLine cmd = getCommandLine(args);
+            final EvolutionConfiguration configuration = getConfiguration(cmd);
+            final Checkpoint checkpoint = cmd.hasOption(RESUME_OPTION) ? getCheckpoint(configuration) : null;
 
-            try(EvolutionExport exporter = ExporterFactory.fromConfiguration(configuration)){
-                final EvolutionRunner runner = new EvolutionRunner(exporter, configuration);
+            try(EvolutionExport exporter = ExporterFactory.fromConfiguration(configuration, checkpoint != null ? checkpoint.getPositions() : Collections.emptyMap())){
+                final EvolutionRunner runner = new EvolutionRunner(exporter, configuration, checkpoint);
                 runner.execute();
             }
 
@@ -54,18 +59,35 @@ public class EvolutionAnalysis {
         logger.info("Finished with error code 0");
     }
 
-    private static EvolutionConfiguration getConfiguration(String[] args) throws ParseException, IOException {
+    private static CommandLine getCommandLine(String[] args) throws ParseException {
         Options options = new Options();
 
         options.addOption(CONFIG_OPTION, true, "path to the json configuration file");
+        options.addOption(RESUME_OPTION, false, "resume the analysis from the last checkpoint");
 
         CommandLineParser parser = new DefaultParser();
-        CommandLine cmd = parser.parse(options, args);
+        return parser.parse(options, args);
+    }
 
+    private static EvolutionConfiguration getConfiguration(CommandLine cmd) throws ParseException, IOException {
         if(!cmd.hasOption(CONFIG_OPTION)){
             throw new MissingArgumentException(CONFIG_OPTION);
         }
 
         return ConfigurationParser.parse(cmd.getOptionValue(CONFIG_OPTION), EvolutionConfiguration.class);
     }
+
+    private static Checkpoint getCheckpoint(EvolutionConfiguration configuration) throws IOException {
+        final File location = configuration.getExecutionConfiguration().getCheckpointFile();
+
+        if(location == null || !location.exists()){
+            logger.warn("No checkpoint found, starting from the first version");
+            return null;
+        }
+
+        final Checkpoint checkpoint = Checkpoint.load(location);
+        logger.info(String.format("Resume from checkpoint '%s'", location.getAbsolutePath()));
+
+        return checkpoint;
+    }
 }
@@ -21,14 +21,25 @@ package lu.uni.serval.ikora.evolution;
  */
 
 import lu.uni.serval.commons.git.exception.InvalidGitRepositoryException;
+import lu.uni.serval.ikora.evolution.configuration.CacheConfiguration;
 import lu.uni.serval.ikora.evolution.configuration.EvolutionConfiguration;
+import lu.uni.serval.ikora.evolution.export.Checkpoint;
+import lu.uni.serval.ikora.evolution.results.BaseRecord;
+import lu.uni.serval.ikora.evolution.results.CloneResults;
 import lu.uni.serval.ikora.evolution.results.TestRecord;
 import lu.uni.serval.ikora.evolution.export.EvolutionExport;
+import lu.uni.serval.ikora.evolution.export.ExportStage;
+import lu.uni.serval.ikora.evolution.export.RecordBatch;
 import lu.uni.serval.ikora.evolution.smells.History;
+import lu.uni.serval.ikora.evolution.smells.IncrementalSmells;
+import lu.uni.serval.ikora.evolution.smells.SmellCache;
+import lu.uni.serval.ikora.evolution.smells.SmellChecks;
 import lu.uni.serval.ikora.evolution.smells.SmellRecordAccumulator;
 import lu.uni.serval.ikora.evolution.results.VersionRecord;
 import lu.uni.serval.ikora.evolution.smells.fix.FixAccumulator;
+import lu.uni.serval.ikora.evolution.utils.StatisticsCache;
 import lu.uni.serval.ikora.evolution.versions.FolderProvider;
+import lu.uni.serval.ikora.evolution.versions.PrefetchIterator;
 import lu.uni.serval.ikora.evolution.versions.VersionProvider;
 
 import lu.uni.serval.ikora.evolution.versions.VersionProviderFactory;
@@ -45,7 +56,15 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.jgit.api.errors.GitAPIException;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class EvolutionRunner {
     private static final Logger logger = LogManager.getLogger(EvolutionRunner.class);
@@ -55,77 +74,358 @@ public class EvolutionRunner {
     private final History history;
 
     private final FixAccumulator fixAccumulator;
+    private final SmellChecks smellChecks;
+    private ForkJoinPool smellPool = null;
+    private SmellCache smellCache = null;
+    private IncrementalSmells incrementalSmells = null;
+    private final CloneResults cloneResults;
+
+    private final Checkpoint checkpoint;
+    private int versionCount;
 
     public EvolutionRunner(EvolutionExport exporter, EvolutionConfiguration configuration){
+        this(exporter, configuration, null);
+    }
+
+    public EvolutionRunner(EvolutionExport exporter, EvolutionConfiguration configuration, Checkpoint checkpoint){
+        this(exporter, configuration, checkpoint, new History());
+    }
+
+    EvolutionRunner(EvolutionExport exporter, EvolutionConfiguration configuration, Checkpoint checkpoint, History history){
         this.exporter = exporter;
         this.configuration = configuration;
-        this.history = new History();
+        this.history = history;
         this.fixAccumulator = new FixAccumulator(this.configuration.getSmellConfiguration(), this.history);
+        this.smellChecks = new SmellChecks(this.configuration.getExecutionConfiguration().isKeywordSmells());
+        this.cloneResults = this.configuration.getExecutionConfiguration().isCloneIndex() ? new CloneResults() : null;
+        this.checkpoint = checkpoint;
+        this.versionCount = 0;
     }
 
     public void execute() throws IOException, GitAPIException, InvalidGitRepositoryException, InterruptedException {
         try (VersionProvider versionProvider = VersionProviderFactory.fromConfiguration(configuration)) {
             this.history.setIgnoreProjectName(versionProvider instanceof FolderProvider);
+            this.history.setTrackLineage(this.exporter.contains(EvolutionExport.Statistics.SMELL));
+            this.smellCache = createSmellCache(versionProvider instanceof FolderProvider);
+            this.incrementalSmells = createIncrementalSmells(versionProvider instanceof FolderProvider);
+
+            final Iterator<Projects> versions = restore(versionProvider);
+            final int pipelineDepth = this.configuration.getExecutionConfiguration().getPipelineDepth();
+
+            if(pipelineDepth > 0){
+                executePipeline(versions, pipelineDepth);
+            }
+            else{
+                while (versions.hasNext()){
+                    this.exporter.export(analyze(versions.next()));
+                }
+            }
+        }
+        finally {
+            if(this.smellPool != null){
+                this.smellPool.shutdown();
+                this.smellPool = null;
+            }
+        }
+    }
+
+    private SmellCache createSmellCache(boolean ignoreProjectName) throws IOException {
+        if(!this.configuration.getExecutionConfiguration().isSmellCache()){
+            return null;
+        }
+
+        final CacheConfiguration cacheConfiguration = this.configuration.getCacheConfiguration();
+
+        if(cacheConfiguration == null){
+            return new SmellCache(this.smellChecks, null, ignoreProjectName);
+        }
+
+        return new SmellCache(
+                this.smellChecks,
+                cacheConfiguration.getSmellLocation(),
+                cacheConfiguration.getMaximumSmellSize() * 1024 * 1024,
+                ignoreProjectName
+        );
+    }
+
+    private IncrementalSmells createIncrementalSmells(boolean ignoreProjectName){
+        if(!this.configuration.getExecutionConfiguration().isIncrementalSmells()){
+            return null;
+        }
+
+        return new IncrementalSmells(this.smellChecks, this.history, ignoreProjectName);
+    }
+
+    private Iterator<Projects> restore(VersionProvider versionProvider){
+        if(this.checkpoint == null || this.checkpoint.getVersionCount() <= 0){
+            return versionProvider.iterator();
+        }
+
+        if(this.configuration.getExecutionConfiguration().isIncrementalSmells() || this.cloneResults != null){
+            throw new IllegalStateException("Cannot resume with incremental smells or the clone index enabled: their state is not part of the checkpoint");
+        }
 
-            for(Projects version: versionProvider){
-                logger.log(Level.INFO, "Starting analysis for version {}...", version.getVersionId());
+        this.versionCount = this.checkpoint.getVersionCount();
 
-                computeVersionStatistics(version);
-                computeTestStatistics(version);
+        final Iterator<Projects> versions = versionProvider.iterator(this.checkpoint.getVersionId(), this.checkpoint.getVersionDate());
 
-                this.history.addVersion(version);
-                computeSmells(version);
+        if(!versions.hasNext()){
+            throw new IllegalStateException(String.format("Checkpoint version %s is not available", getCheckpointVersion()));
+        }
+
+        warmUp(versions.next());
+
+        return versions;
+    }
+
+    private void warmUp(Projects version){
+        logger.log(Level.INFO, "Restoring state from version {}...", version.getVersionId());
+
+        if(!this.checkpoint.isVersion(version)){
+            throw new IllegalStateException(String.format("Checkpoint was taken on version %s but resuming from version %s",
+                    getCheckpointVersion(),
+                    version.getVersionId() != null ? version.getVersionId() : version.getDate()
+            ));
+        }
+
+        this.history.addVersion(version);
+
+        if(this.exporter.contains(EvolutionExport.Statistics.SMELL)){
+            final SmellConfiguration smellConfiguration = this.configuration.getSmellConfiguration();
+            smellConfiguration.setClones(findClones(version));
+
+            for(TestCase testCase: version.getTestCases()){
+                history.addSmells(version, testCase, computeMetrics(version, testCase, smellConfiguration));
+            }
+        }
+
+        this.history.addLineageOrigins(this.checkpoint.getLineages(version));
+
+        logger.log(Level.INFO, "State restored, resuming after {} versions.", this.versionCount);
+    }
+
+    private Object getCheckpointVersion(){
+        return this.checkpoint.getVersionId() != null ? this.checkpoint.getVersionId() : this.checkpoint.getVersionDate();
+    }
 
-                logger.log(Level.INFO, "Analysis for version {} done.", version.getVersionId());
+    private void executePipeline(Iterator<Projects> source, int pipelineDepth) throws IOException, InterruptedException {
+        try (PrefetchIterator<Projects> versions = new PrefetchIterator<>(source, pipelineDepth);
+             ExportStage exportStage = new ExportStage(this.exporter, pipelineDepth)) {
+            while (versions.hasNext()){
+                exportStage.submit(analyze(versions.next()));
             }
         }
     }
 
-    private void computeVersionStatistics(Projects version) throws IOException {
+    private RecordBatch analyze(Projects version) throws InterruptedException {
+        logger.log(Level.INFO, "Starting analysis for version {}...", version.getVersionId());
+
+        final RecordBatch batch = new RecordBatch(version.getVersionId());
+
+        computeVersionStatistics(version, batch);
+        computeTestStatistics(version, batch);
+
+        this.history.addVersion(version);
+        computeSmells(version, batch);
+        computeCheckpoint(version, batch);
+
+        logger.log(Level.INFO, "Analysis for version {} done.", version.getVersionId());
+
+        return batch;
+    }
+
+    private void computeCheckpoint(Projects version, RecordBatch batch) {
+        ++this.versionCount;
+
+        final int interval = this.configuration.getExecutionConfiguration().getCheckpointInterval();
+
+        if(interval <= 0){
+            return;
+        }
+
+        // extending lineages one version at a time keeps checkpoints from walking back the whole interval
+        if(this.exporter.contains(EvolutionExport.Statistics.SMELL)){
+            Checkpoint.trackLineages(version, this.history);
+        }
+
+        if(this.versionCount % interval != 0){
+            return;
+        }
+
+        final File location = this.configuration.getExecutionConfiguration().getCheckpointFile();
+        batch.setCheckpoint(Checkpoint.create(location, this.versionCount, version, this.history));
+    }
+
+    private void computeVersionStatistics(Projects version, RecordBatch batch) {
         if(!this.exporter.contains(EvolutionExport.Statistics.PROJECT)){
             return;
         }
 
-        this.exporter.export(EvolutionExport.Statistics.PROJECT, new VersionRecord(version));
+        batch.add(EvolutionExport.Statistics.PROJECT, new VersionRecord(version));
     }
 
-    private void computeSmells(Projects version) throws IOException, InterruptedException {
+    private void computeSmells(Projects version, RecordBatch batch) throws InterruptedException {
         if(!this.exporter.contains(EvolutionExport.Statistics.SMELL)){
-            new SmellRecordAccumulator(fixAccumulator);
             return;
         }
 
         SmellRecordAccumulator smellRecordAccumulator = findSmells(version);
-        this.exporter.export(EvolutionExport.Statistics.SMELL, smellRecordAccumulator.getRecords());
+        batch.addAll(EvolutionExport.Statistics.SMELL, smellRecordAccumulator.getRecords());
 
     }
 
-    private void computeTestStatistics(Projects version) throws IOException {
+    private void computeTestStatistics(Projects version, RecordBatch batch) {
         if(!this.exporter.contains(EvolutionExport.Statistics.TEST)){
             return;
         }
 
+        final StatisticsCache statistics = this.history.getStatistics(version);
+
         for(TestCase testCase: version.getTestCases()){
-            this.exporter.export(EvolutionExport.Statistics.TEST, new TestRecord(testCase));
+            batch.add(EvolutionExport.Statistics.TEST, new TestRecord(testCase, statistics));
         }
     }
 
     private SmellRecordAccumulator findSmells(Projects version) throws InterruptedException {
         final SmellConfiguration smellConfiguration = this.configuration.getSmellConfiguration();
-        final SmellRecordAccumulator smellRecordAccumulator = new SmellRecordAccumulator(fixAccumulator);
-        final SmellDetector detector = SmellDetector.all();
-        final Clones<KeywordDefinition> clones = KeywordCloneDetection.findClones(version);
+        final SmellRecordAccumulator smellRecordAccumulator = new SmellRecordAccumulator(fixAccumulator, history,
+                this.configuration.getExecutionConfiguration().isFixGating());
+        final Clones<KeywordDefinition> clones = findClones(version);
 
         smellConfiguration.setClones(clones);
 
+        final int smellThreads = this.configuration.getExecutionConfiguration().getSmellThreads();
+
+        if(smellThreads > 1){
+            findSmellsInParallel(version, smellRecordAccumulator, smellThreads);
+            logSmellCache(version);
+            return smellRecordAccumulator;
+        }
+
+        final SmellDetector detector = isDetectingDirectly() ? SmellDetector.all() : null;
+
         for(Project project: version){
             for(TestCase testCase: project.getTestCases()){
-                final SmellResults smellResults = detector.computeMetrics(testCase, smellConfiguration);
-                history.addSmells(version, smellResults);
+                final SmellResults smellResults = detector != null
+                        ? detector.computeMetrics(testCase, smellConfiguration)
+                        : computeMetrics(version, testCase, smellConfiguration);
+                history.addSmells(version, testCase, smellResults);
                 smellRecordAccumulator.addTestCase(version, testCase, smellResults);
             }
         }
 
+        logSmellCache(version);
         return smellRecordAccumulator;
     }
+
+    private Clones<KeywordDefinition> findClones(Projects version){
+        if(this.cloneResults == null){
+            return KeywordCloneDetection.findClones(version);
+        }
+
+        final Clones<KeywordDefinition> clones = this.cloneResults.getKeywords(version);
+
+        logger.log(Level.DEBUG, "Clone index after version {}: {} comparisons",
+                version.getVersionId(),
+                this.cloneResults.getComparisons()
+        );
+
+        return clones;
+    }
+
+    private boolean isDetectingDirectly(){
+        return this.incrementalSmells == null
+                && this.smellCache == null
+                && !this.configuration.getExecutionConfiguration().isKeywordSmells();
+    }
+
+    private SmellResults computeMetrics(Projects version, TestCase testCase, SmellConfiguration smellConfiguration){
+        if(this.incrementalSmells != null){
+            return this.incrementalSmells.computeMetrics(version, testCase, smellConfiguration,
+                    () -> detectMetrics(version, testCase, smellConfiguration));
+        }
+
+        return detectMetrics(version, testCase, smellConfiguration);
+    }
+
+    private SmellResults detectMetrics(Projects version, TestCase testCase, SmellConfiguration smellConfiguration){
+        if(this.smellCache != null){
+            return this.smellCache.computeMetrics(version, testCase, smellConfiguration);
+        }
+
+        return this.smellChecks.computeMetrics(testCase, smellConfiguration);
+    }
+
+    private void logSmellCache(Projects version){
+        if(this.smellCache != null){
+            logger.log(Level.DEBUG, "Smell cache after version {}: {} hits, {} misses, {} bypassed",
+                    version.getVersionId(),
+                    this.smellCache.getHits(),
+                    this.smellCache.getMisses(),
+                    this.smellCache.getBypassed()
+            );
+        }
+
+        if(this.incrementalSmells != null){
+            final long copied = this.incrementalSmells.getHits();
+            final long detected = this.incrementalSmells.getMisses();
+
+            logger.log(Level.DEBUG, "Incremental smells after version {}: {} copied, {} detected ({}% reused), {} full fallbacks",
+                    version.getVersionId(),
+                    copied,
+                    detected,
+                    copied + detected > 0 ? 100 * copied / (copied + detected) : 0,
+                    this.incrementalSmells.getFallbacks()
+            );
+        }
+
+        logger.log(Level.DEBUG, "Fix predicate caches after version {}: {} hits, {} misses",
+                version.getVersionId(),
+                this.fixAccumulator.getPredicateCacheHits(),
+                this.fixAccumulator.getPredicateCacheMisses()
+        );
+    }
+
+    private void findSmellsInParallel(Projects version, SmellRecordAccumulator smellRecordAccumulator, int smellThreads) throws InterruptedException {
+        final SmellConfiguration smellConfiguration = this.configuration.getSmellConfiguration();
+        final List<TestCase> testCases = new ArrayList<>();
+
+        for(Project project: version){
+            testCases.addAll(project.getTestCases());
+        }
+
+        final ForkJoinPool pool = getSmellPool(smellThreads);
+
+        try {
+            final List<SmellResults> smellResults = pool.submit(() -> testCases.parallelStream()
+                    .map(testCase -> computeMetrics(version, testCase, smellConfiguration))
+                    .collect(Collectors.toList())
+            ).get();
+
+            for(int i = 0; i < testCases.size(); ++i){
+                history.addSmells(version, testCases.get(i), smellResults.get(i));
+            }
+
+            final List<List<BaseRecord>> records = pool.submit(() -> IntStream.range(0, testCases.size()).parallel()
+                    .mapToObj(i -> smellRecordAccumulator.createRecords(version, testCases.get(i), smellResults.get(i)))
+                    .collect(Collectors.toList())
+            ).get();
+
+            records.forEach(smellRecordAccumulator::addRecords);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException){
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private ForkJoinPool getSmellPool(int smellThreads){
+        if(this.smellPool == null){
+            this.smellPool = new ForkJoinPool(smellThreads);
+        }
+
+        return this.smellPool;
+    }
 }
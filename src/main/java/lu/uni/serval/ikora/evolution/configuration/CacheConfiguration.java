@@ -0,0 +1,70 @@
+package lu.uni.serval.ikora.evolution.configuration;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.File;
+
+public class CacheConfiguration extends Configuration {
+    @JsonProperty(value = "location", required = true)
+    private File location;
+    @JsonProperty(value = "maximum size", defaultValue = "1024")
+    private long maximumSize = 1024;
+    @JsonProperty(value = "maximum smell size", defaultValue = "256")
+    private long maximumSmellSize = 256;
+
+    public File getLocation() {
+        if(location != null && !location.isAbsolute()){
+            return new File(getFolder(), location.getPath());
+        }
+
+        return location;
+    }
+
+    public File getSnapshotLocation() {
+        return new File(getLocation(), "snapshots");
+    }
+
+    public File getSmellLocation() {
+        return new File(getLocation(), "smells");
+    }
+
+    public void setLocation(File location) {
+        this.location = location;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public long getMaximumSmellSize() {
+        return maximumSmellSize;
+    }
+
+    public void setMaximumSmellSize(long maximumSmellSize) {
+        this.maximumSmellSize = maximumSmellSize;
+    }
+}
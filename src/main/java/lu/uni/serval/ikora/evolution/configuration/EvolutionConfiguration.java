@@ -32,6 +32,10 @@ public class EvolutionConfiguration extends Configuration {
     private OutputConfiguration outputConfiguration;
     @JsonProperty(value= "smells")
     private SmellConfiguration smellConfiguration = new SmellConfiguration();
+    @JsonProperty(value = "execution")
+    private ExecutionConfiguration executionConfiguration = new ExecutionConfiguration();
+    @JsonProperty(value = "cache")
+    private CacheConfiguration cacheConfiguration;
 
     @JsonProperty(value = "git")
     public GitConfiguration getGitConfiguration() {
@@ -72,4 +76,24 @@ public class EvolutionConfiguration extends Configuration {
     public void setSmellConfiguration(SmellConfiguration smellConfiguration) {
         this.smellConfiguration = smellConfiguration;
     }
+
+    @JsonProperty(value = "execution")
+    public ExecutionConfiguration getExecutionConfiguration() {
+        return executionConfiguration;
+    }
+
+    @JsonProperty(value = "execution")
+    public void setExecutionConfiguration(ExecutionConfiguration executionConfiguration) {
+        this.executionConfiguration = executionConfiguration;
+    }
+
+    @JsonProperty(value = "cache")
+    public CacheConfiguration getCacheConfiguration() {
+        return cacheConfiguration;
+    }
+
+    @JsonProperty(value = "cache")
+    public void setCacheConfiguration(CacheConfiguration cacheConfiguration) {
+        this.cacheConfiguration = cacheConfiguration;
+    }
 }
@@ -0,0 +1,122 @@
+package lu.uni.serval.ikora.evolution.configuration;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.File;
+
+public class ExecutionConfiguration extends Configuration {
+    @JsonProperty(value = "pipeline depth", defaultValue = "0")
+    private int pipelineDepth = 0;
+    @JsonProperty(value = "smell threads", defaultValue = "1")
+    private int smellThreads = 1;
+    @JsonProperty(value = "smell cache", defaultValue = "false")
+    private boolean smellCache = false;
+    @JsonProperty(value = "clone index", defaultValue = "false")
+    private boolean cloneIndex = false;
+    @JsonProperty(value = "fix gating", defaultValue = "false")
+    private boolean fixGating = false;
+    @JsonProperty(value = "keyword smells", defaultValue = "false")
+    private boolean keywordSmells = false;
+    @JsonProperty(value = "incremental smells", defaultValue = "false")
+    private boolean incrementalSmells = false;
+    @JsonProperty(value = "checkpoint interval", defaultValue = "0")
+    private int checkpointInterval = 0;
+    @JsonProperty(value = "checkpoint", defaultValue = "checkpoint.json")
+    private File checkpointFile = new File("checkpoint.json");
+
+    public int getPipelineDepth() {
+        return pipelineDepth;
+    }
+
+    public void setPipelineDepth(int pipelineDepth) {
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    public int getSmellThreads() {
+        return smellThreads;
+    }
+
+    public void setSmellThreads(int smellThreads) {
+        this.smellThreads = smellThreads;
+    }
+
+    public boolean isSmellCache() {
+        return smellCache;
+    }
+
+    public void setSmellCache(boolean smellCache) {
+        this.smellCache = smellCache;
+    }
+
+    public boolean isCloneIndex() {
+        return cloneIndex;
+    }
+
+    public void setCloneIndex(boolean cloneIndex) {
+        this.cloneIndex = cloneIndex;
+    }
+
+    public boolean isFixGating() {
+        return fixGating;
+    }
+
+    public void setFixGating(boolean fixGating) {
+        this.fixGating = fixGating;
+    }
+
+    public boolean isKeywordSmells() {
+        return keywordSmells;
+    }
+
+    public void setKeywordSmells(boolean keywordSmells) {
+        this.keywordSmells = keywordSmells;
+    }
+
+    public boolean isIncrementalSmells() {
+        return incrementalSmells;
+    }
+
+    public void setIncrementalSmells(boolean incrementalSmells) {
+        this.incrementalSmells = incrementalSmells;
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public void setCheckpointInterval(int checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    public File getCheckpointFile() {
+        if(checkpointFile != null && !checkpointFile.isAbsolute()){
+            return new File(getFolder(), checkpointFile.getPath());
+        }
+
+        return checkpointFile;
+    }
+
+    public void setCheckpointFile(File checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+}
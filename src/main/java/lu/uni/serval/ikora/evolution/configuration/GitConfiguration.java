@@ -49,6 +49,10 @@ public class GitConfiguration extends Configuration {
     private int maximumCommitsNumber = 0;
     @JsonProperty(value = "frequency", defaultValue = "UNIQUE")
     private Frequency frequency = Frequency.UNIQUE;
+    @JsonProperty(value = "build threads", defaultValue = "1")
+    private int buildThreads = 1;
+    @JsonProperty(value = "worktrees", defaultValue = "1")
+    private int worktrees = 1;
 
     public String getUrl() {
         return url;
@@ -137,4 +141,20 @@ public class GitConfiguration extends Configuration {
     public void setFrequency(Frequency frequency) {
         this.frequency = frequency;
     }
+
+    public int getBuildThreads() {
+        return buildThreads;
+    }
+
+    public void setBuildThreads(int buildThreads) {
+        this.buildThreads = buildThreads;
+    }
+
+    public int getWorktrees() {
+        return worktrees;
+    }
+
+    public void setWorktrees(int worktrees) {
+        this.worktrees = worktrees;
+    }
 }
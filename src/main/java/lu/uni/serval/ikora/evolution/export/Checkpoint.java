@@ -0,0 +1,159 @@
+package lu.uni.serval.ikora.evolution.export;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lu.uni.serval.ikora.core.model.Projects;
+import lu.uni.serval.ikora.core.model.SourceNode;
+import lu.uni.serval.ikora.evolution.smells.History;
+import lu.uni.serval.ikora.evolution.smells.Lineage;
+import lu.uni.serval.ikora.evolution.utils.NodePaths;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.*;
+
+public class Checkpoint {
+    @JsonIgnore
+    private File location;
+
+    @JsonProperty(value = "versions")
+    private int versionCount;
+    @JsonProperty(value = "version id")
+    private String versionId;
+    @JsonProperty(value = "version date")
+    private Long versionDate;
+    @JsonProperty(value = "positions")
+    private Map<EvolutionExport.Statistics, Long> positions = new EnumMap<>(EvolutionExport.Statistics.class);
+    @JsonProperty(value = "lineages")
+    private List<Entry> lineages = new ArrayList<>();
+
+    public static Checkpoint create(File location, int versionCount, Projects version, History history){
+        final Checkpoint checkpoint = new Checkpoint();
+
+        checkpoint.location = location;
+        checkpoint.versionCount = versionCount;
+        checkpoint.versionId = version.getVersionId();
+        checkpoint.versionDate = version.getDate() != null ? version.getDate().toEpochMilli() : null;
+
+        for(SourceNode node: getLineageNodes(version, history)){
+            final Lineage lineage = history.getLineage(version, node);
+
+            if(lineage.getSize() > 1){
+                NodePaths.encode(node).ifPresent(path -> checkpoint.lineages.add(new Entry(path, lineage)));
+            }
+        }
+
+        return checkpoint;
+    }
+
+    public static void trackLineages(Projects version, History history){
+        for(SourceNode node: getLineageNodes(version, history)){
+            history.getLineage(version, node);
+        }
+    }
+
+    private static Set<SourceNode> getLineageNodes(Projects version, History history){
+        final Set<SourceNode> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        nodes.addAll(history.getSmellyNodes(version));
+        nodes.addAll(version.getTestCases());
+        nodes.addAll(version.getUserKeywords());
+        nodes.addAll(version.getVariableAssignments());
+
+        return nodes;
+    }
+
+    public static Checkpoint load(File location) throws IOException {
+        final Checkpoint checkpoint = new ObjectMapper().readValue(location, Checkpoint.class);
+        checkpoint.location = location;
+
+        return checkpoint;
+    }
+
+    public void save() throws IOException {
+        final File temporary = new File(location.getAbsolutePath() + ".tmp");
+
+        new ObjectMapper().writeValue(temporary, this);
+        Files.move(temporary.toPath(), location.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int getVersionCount() {
+        return versionCount;
+    }
+
+    public String getVersionId() {
+        return versionId;
+    }
+
+    public Instant getVersionDate() {
+        return versionDate != null ? Instant.ofEpochMilli(versionDate) : null;
+    }
+
+    public boolean isVersion(Projects version){
+        final Long date = version.getDate() != null ? version.getDate().toEpochMilli() : null;
+        return Objects.equals(versionId, version.getVersionId()) && Objects.equals(versionDate, date);
+    }
+
+    public Map<EvolutionExport.Statistics, Long> getPositions() {
+        return positions;
+    }
+
+    public void setPositions(Map<EvolutionExport.Statistics, Long> positions) {
+        this.positions = positions;
+    }
+
+    public Map<SourceNode, Lineage> getLineages(Projects version){
+        final Map<SourceNode, Lineage> lineageMap = new IdentityHashMap<>(lineages.size());
+
+        for(Entry entry: lineages){
+            NodePaths.decode(version, entry.node).ifPresent(node -> lineageMap.put(node, entry.toLineage()));
+        }
+
+        return lineageMap;
+    }
+
+    private static class Entry {
+        @JsonProperty(value = "node")
+        private String node;
+        @JsonProperty(value = "size")
+        private int size;
+        @JsonProperty(value = "introduction")
+        private Long introduction;
+
+        private Entry() {}
+
+        private Entry(String node, Lineage lineage) {
+            this.node = node;
+            this.size = lineage.getSize();
+            this.introduction = lineage.getIntroductionDate() != null ? lineage.getIntroductionDate().toEpochMilli() : null;
+        }
+
+        private Lineage toLineage(){
+            return new Lineage(size, introduction != null ? Instant.ofEpochMilli(introduction) : null);
+        }
+    }
+}
@@ -31,28 +31,47 @@ import org.apache.logging.log4j.Logger;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 public class CsvExporter implements Exporter {
     private static final Logger logger = LogManager.getLogger(CsvExporter.class);
 
     private final boolean isHashNames;
+    private final File file;
+    private final boolean isAppending;
     private final FileWriter out;
     private CSVPrinter printer;
 
     public CsvExporter(String output, boolean isHashNames) throws IOException {
+        this(output, isHashNames, -1);
+    }
+
+    public CsvExporter(String output, boolean isHashNames, long position) throws IOException {
         final File folder = new File(FilenameUtils.getFullPathNoEndSeparator(output));
 
         if(folder.mkdirs()){
             logger.log(Level.INFO, "Create folder {}", folder.getAbsolutePath());
         }
 
-        this.out = new FileWriter(output);
+        this.file = new File(output);
+        this.isAppending = position > 0 && this.file.exists();
+
+        if(this.isAppending){
+            try(FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.WRITE)){
+                channel.truncate(position);
+            }
+
+            logger.log(Level.INFO, "Resume writing {} at position {}", output, position);
+        }
+
+        this.out = new FileWriter(this.file, this.isAppending);
         this.isHashNames = isHashNames;
     }
 
     private void initialize(String[] headers) throws IOException {
-        final CSVFormat csv = CSVFormat.Builder.create().setHeader(headers).build();
+        final CSVFormat csv = CSVFormat.Builder.create().setHeader(headers).setSkipHeaderRecord(this.isAppending).build();
         this.printer = new CSVPrinter(out, csv);
     }
 
@@ -102,6 +121,15 @@ public class CsvExporter implements Exporter {
         }
     }
 
+    @Override
+    public long getPosition() throws IOException {
+        if(this.printer != null){
+            this.printer.flush();
+        }
+
+        return this.file.length();
+    }
+
     @Override
     public void close() throws IOException {
         if(this.printer != null){
@@ -27,9 +27,11 @@ import org.apache.logging.log4j.Logger;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public class EvolutionExport implements Closeable {
     private static final Logger logger = LogManager.getLogger(EvolutionExport.class);
@@ -45,12 +47,16 @@ public class EvolutionExport implements Closeable {
     private final boolean isHashNames;
 
     public EvolutionExport(Exporter.Strategy strategy, Map<Statistics, File> outputFiles, boolean isHashNames){
+        this(strategy, outputFiles, isHashNames, Collections.emptyMap());
+    }
+
+    public EvolutionExport(Exporter.Strategy strategy, Map<Statistics, File> outputFiles, boolean isHashNames, Map<Statistics, Long> positions){
         this.exporterMap = new EnumMap<>(Statistics.class);
         this.strategy = strategy;
         this.isHashNames = isHashNames;
 
         for(Map.Entry<Statistics, File> outputFile: outputFiles.entrySet()){
-            initializeExporter(outputFile.getKey(), outputFile.getValue());
+            initializeExporter(outputFile.getKey(), outputFile.getValue(), positions.getOrDefault(outputFile.getKey(), -1L));
         }
     }
 
@@ -62,10 +68,20 @@ public class EvolutionExport implements Closeable {
         return exporterMap.containsKey(statistics);
     }
 
-    private void initializeExporter(Statistics statistic, File location){
+    public Map<Statistics, Long> getPositions() throws IOException {
+        final Map<Statistics, Long> positions = new EnumMap<>(Statistics.class);
+
+        for(Map.Entry<Statistics, Exporter> entry: exporterMap.entrySet()){
+            positions.put(entry.getKey(), entry.getValue().getPosition());
+        }
+
+        return positions;
+    }
+
+    private void initializeExporter(Statistics statistic, File location, long position){
         if(location != null){
             try {
-                final Exporter exporter = ExporterFactory.create(this.strategy, location.getAbsolutePath(), isHashNames);
+                final Exporter exporter = ExporterFactory.create(this.strategy, location.getAbsolutePath(), isHashNames, position);
                 this.exporterMap.put(statistic, exporter);
             } catch (IOException e) {
                 logger.error(String.format("Failed to create csv writer for %s at location '%s'",
@@ -91,6 +107,21 @@ public class EvolutionExport implements Closeable {
         }
     }
 
+    public void export(RecordBatch batch) throws IOException {
+        for(Statistics statistics: batch.getStatistics()){
+            export(statistics, batch.get(statistics));
+        }
+
+        final Optional<Checkpoint> checkpoint = batch.getCheckpoint();
+
+        if(checkpoint.isPresent()){
+            checkpoint.get().setPositions(getPositions());
+            checkpoint.get().save();
+
+            logger.info(String.format("Checkpoint saved after version %s", batch.getVersionId()));
+        }
+    }
+
     @Override
     public void close() throws IOException {
         for(Exporter exporter: exporterMap.values()){
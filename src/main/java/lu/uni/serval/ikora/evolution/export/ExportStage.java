@@ -0,0 +1,105 @@
+package lu.uni.serval.ikora.evolution.export;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public class ExportStage implements Closeable {
+    private static final Logger logger = LogManager.getLogger(ExportStage.class);
+
+    private final EvolutionExport exporter;
+    private final BlockingQueue<Optional<RecordBatch>> queue;
+    private final Thread thread;
+    private volatile Throwable error = null;
+
+    public ExportStage(EvolutionExport exporter, int capacity){
+        this.exporter = exporter;
+        this.queue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        this.thread = new Thread(this::run, "evolution-export");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public void submit(RecordBatch batch) throws IOException, InterruptedException {
+        checkError();
+        queue.put(Optional.of(batch));
+    }
+
+    private void run(){
+        try {
+            Optional<RecordBatch> batch = queue.take();
+
+            while (batch.isPresent()){
+                export(batch.get());
+                batch = queue.take();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void export(RecordBatch batch){
+        if(error != null){
+            return;
+        }
+
+        try {
+            exporter.export(batch);
+            logger.log(Level.DEBUG, "Export for version {} done.", batch.getVersionId());
+        } catch (Throwable e) {
+            logger.log(Level.ERROR, "Failed to export version {}: {}", batch.getVersionId(), e.getMessage());
+            error = e;
+        }
+    }
+
+    private void checkError() throws IOException {
+        if(error instanceof IOException){
+            throw (IOException) error;
+        }
+
+        if(error != null){
+            throw new IOException("Failed to export records", error);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            queue.put(Optional.empty());
+            thread.join();
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the export to finish");
+        }
+
+        checkError();
+    }
+}
@@ -34,4 +34,5 @@ public interface Exporter extends Closeable {
 
     void addRecord(BaseRecord baseRecord) throws IOException;
     void addRecords(List<BaseRecord> baseRecords) throws IOException;
+    long getPosition() throws IOException;
 }
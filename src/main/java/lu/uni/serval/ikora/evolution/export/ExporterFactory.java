@@ -25,6 +25,7 @@ import lu.uni.serval.ikora.evolution.configuration.OutputConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.Map;
 
@@ -32,6 +33,10 @@ public class ExporterFactory {
     private ExporterFactory() {}
 
     public static EvolutionExport fromConfiguration(EvolutionConfiguration configuration){
+        return fromConfiguration(configuration, Collections.emptyMap());
+    }
+
+    public static EvolutionExport fromConfiguration(EvolutionConfiguration configuration, Map<EvolutionExport.Statistics, Long> positions){
         OutputConfiguration outputConfiguration = configuration.getOutputConfiguration();
         Map<EvolutionExport.Statistics, File> outputFiles = new EnumMap<>(EvolutionExport.Statistics.class);
 
@@ -50,13 +55,17 @@ public class ExporterFactory {
             outputFiles.put(EvolutionExport.Statistics.TEST, testsCsvFile);
         }
 
-        return new EvolutionExport(outputConfiguration.getStrategy(), outputFiles, outputConfiguration.isHashNames());
+        return new EvolutionExport(outputConfiguration.getStrategy(), outputFiles, outputConfiguration.isHashNames(), positions);
     }
 
     public static Exporter create(Exporter.Strategy strategy, String absolutePath, boolean isHashNames) throws IOException {
+        return create(strategy, absolutePath, isHashNames, -1);
+    }
+
+    public static Exporter create(Exporter.Strategy strategy, String absolutePath, boolean isHashNames, long position) throws IOException {
         switch (strategy){
             case IN_MEMORY: return new InMemoryExporter(absolutePath, isHashNames);
-            case CSV: return new CsvExporter(absolutePath, isHashNames);
+            case CSV: return new CsvExporter(absolutePath, isHashNames, position);
             default: throw new IllegalArgumentException(String.format(
                         "Exporter strategy expect IN_MEMORY or CSV but got '%s' instead",
                         strategy.name()
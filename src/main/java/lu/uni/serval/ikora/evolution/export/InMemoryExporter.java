@@ -46,6 +46,11 @@ public class InMemoryExporter implements Exporter {
         this.baseRecords.addAll(baseRecords);
     }
 
+    @Override
+    public long getPosition() {
+        return this.baseRecords.size();
+    }
+
     @Override
     public void close() throws IOException {
         //nothing to do
@@ -0,0 +1,65 @@
+package lu.uni.serval.ikora.evolution.export;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.evolution.results.BaseRecord;
+
+import java.util.*;
+
+public class RecordBatch {
+    private final String versionId;
+    private final Map<EvolutionExport.Statistics, List<BaseRecord>> records;
+    private Checkpoint checkpoint;
+
+    public RecordBatch(String versionId){
+        this.versionId = versionId;
+        this.records = new EnumMap<>(EvolutionExport.Statistics.class);
+        this.checkpoint = null;
+    }
+
+    public String getVersionId() {
+        return versionId;
+    }
+
+    public void add(EvolutionExport.Statistics statistics, BaseRecord baseRecord){
+        records.computeIfAbsent(statistics, s -> new ArrayList<>()).add(baseRecord);
+    }
+
+    public void addAll(EvolutionExport.Statistics statistics, List<BaseRecord> baseRecords){
+        records.computeIfAbsent(statistics, s -> new ArrayList<>()).addAll(baseRecords);
+    }
+
+    public List<BaseRecord> get(EvolutionExport.Statistics statistics){
+        return records.getOrDefault(statistics, Collections.emptyList());
+    }
+
+    public Set<EvolutionExport.Statistics> getStatistics(){
+        return records.keySet();
+    }
+
+    public Optional<Checkpoint> getCheckpoint() {
+        return Optional.ofNullable(checkpoint);
+    }
+
+    public void setCheckpoint(Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+}
@@ -24,17 +24,238 @@ import lu.uni.serval.ikora.core.analytics.clones.Clones;
 import lu.uni.serval.ikora.core.analytics.clones.KeywordCloneDetection;
 import lu.uni.serval.ikora.core.model.*;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 public class CloneResults {
-    private final Map<Projects, Clones<KeywordDefinition>> keywords;
+    private final Map<String, Fingerprint> fingerprints;
+    private final Group root;
+    private int nextId;
+
+    private Projects version;
+    private Clones<KeywordDefinition> keywords;
+    private int comparisons;
 
     public CloneResults(){
-        this.keywords = new HashMap<>();
+        this.fingerprints = new HashMap<>();
+        this.root = new Group(Clones.Type.NONE, 0);
+        this.nextId = 1;
+        this.version = null;
+        this.keywords = null;
+        this.comparisons = 0;
     }
 
     public Clones<KeywordDefinition> getKeywords(Projects version){
-        return keywords.computeIfAbsent(version, KeywordCloneDetection::findClones);
+        if(this.version != version){
+            update(version);
+
+            this.version = version;
+            this.keywords = createClones();
+        }
+
+        return keywords;
+    }
+
+    public int getComparisons() {
+        return comparisons;
+    }
+
+    private void update(Projects version){
+        for(Fingerprint fingerprint: fingerprints.values()){
+            fingerprint.keywords.clear();
+        }
+
+        final Map<String, List<KeywordDefinition>> added = new LinkedHashMap<>();
+
+        for(Project project: version){
+            for(KeywordDefinition keyword: getDefinitions(project)){
+                if(keyword.getStepCount() <= 1){
+                    continue;
+                }
+
+                final String key = fingerprint(keyword);
+                final Fingerprint known = fingerprints.get(key);
+
+                if(known != null){
+                    known.keywords.add(keyword);
+                }
+                else{
+                    added.computeIfAbsent(key, k -> new ArrayList<>()).add(keyword);
+                }
+            }
+        }
+
+        fingerprints.values().removeIf(fingerprint -> fingerprint.keywords.isEmpty());
+        root.prune();
+
+        for(Map.Entry<String, List<KeywordDefinition>> entry: added.entrySet()){
+            final Group group = classify(entry.getValue().get(0), root, null);
+            final Fingerprint fingerprint = new Fingerprint(entry.getValue());
+
+            group.fingerprints.add(fingerprint);
+            fingerprints.put(entry.getKey(), fingerprint);
+        }
+    }
+
+    private Group classify(KeywordDefinition keyword, Group parent, Clones.Type known){
+        if(parent.type == Clones.Type.TYPE_1){
+            return parent;
+        }
+
+        final Clones.Type level = getChildType(parent.type);
+
+        for(int i = 0; i < parent.children.size(); ++i){
+            final Group child = parent.children.get(i);
+            final Clones.Type type = i == 0 && known != null ? known : compare(keyword, child.getRepresentative());
+
+            if(getPrecision(type) <= getPrecision(level)){
+                return classify(keyword, child, type);
+            }
+        }
+
+        final Group child = new Group(level, nextId++);
+        parent.children.add(child);
+
+        return classify(keyword, child, null);
+    }
+
+    private Clones.Type compare(KeywordDefinition keyword, KeywordDefinition representative){
+        ++comparisons;
+        return KeywordCloneDetection.getCloneType(keyword, representative);
+    }
+
+    private Clones<KeywordDefinition> createClones(){
+        final Clones<KeywordDefinition> clones = new Clones<>();
+
+        for(Group group: root.children){
+            addClones(clones, group);
+        }
+
+        return clones;
+    }
+
+    private void addClones(Clones<KeywordDefinition> clones, Group group){
+        final boolean isCluster = group.type == Clones.Type.TYPE_1
+                ? group.fingerprints.size() > 1 || group.fingerprints.get(0).keywords.size() > 1
+                : group.children.size() > 1;
+
+        if(isCluster){
+            final List<KeywordDefinition> members = group.getKeywords();
+            final KeywordDefinition first = members.get(0);
+
+            for(KeywordDefinition member: members.subList(1, members.size())){
+                clones.update(first, member, group.id, group.type);
+            }
+        }
+
+        for(Group child: group.children){
+            addClones(clones, child);
+        }
+    }
+
+    private static List<KeywordDefinition> getDefinitions(Project project){
+        final List<KeywordDefinition> definitions = new ArrayList<>(project.getTestCases());
+        definitions.addAll(project.getUserKeywords());
+
+        return definitions;
+    }
+
+    private static String fingerprint(KeywordDefinition keyword){
+        final StringBuilder builder = new StringBuilder();
+
+        for(Step step: keyword.getSteps()){
+            appendStep(builder, step);
+        }
+
+        return builder.toString();
+    }
+
+    private static void appendStep(StringBuilder builder, Step step){
+        builder.append(step).append('\t');
+
+        if(step instanceof Assignment){
+            builder.append(((Assignment) step).getLeftHandOperand().size());
+        }
+
+        step.getKeywordCall().ifPresent(call -> {
+            builder.append('\t').append(call.getKeywordType());
+            builder.append('\t').append(call.getArgumentList().size());
+            call.getKeyword().ifPresent(keyword -> builder.append('\t').append(keyword.getName()));
+        });
+
+        builder.append('\n');
+
+        for(Step child: step.getSteps()){
+            appendStep(builder, child);
+        }
+
+        builder.append('\0');
+    }
+
+    private static Clones.Type getChildType(Clones.Type type){
+        switch (type){
+            case NONE: return Clones.Type.TYPE_3;
+            case TYPE_3: return Clones.Type.TYPE_2;
+            case TYPE_2: return Clones.Type.TYPE_1;
+            default: throw new IllegalStateException("Unexpected clone group type: " + type);
+        }
+    }
+
+    private static int getPrecision(Clones.Type type){
+        switch (type){
+            case TYPE_1: return 1;
+            case TYPE_2: return 2;
+            case TYPE_3: return 3;
+            default: return 4;
+        }
+    }
+
+    private static class Fingerprint {
+        final List<KeywordDefinition> keywords;
+
+        Fingerprint(List<KeywordDefinition> keywords){
+            this.keywords = new ArrayList<>(keywords);
+        }
+    }
+
+    private static class Group {
+        final Clones.Type type;
+        final int id;
+        final List<Group> children = new ArrayList<>();
+        final List<Fingerprint> fingerprints = new ArrayList<>();
+
+        Group(Clones.Type type, int id){
+            this.type = type;
+            this.id = id;
+        }
+
+        KeywordDefinition getRepresentative(){
+            return type == Clones.Type.TYPE_1
+                    ? fingerprints.get(0).keywords.get(0)
+                    : children.get(0).getRepresentative();
+        }
+
+        List<KeywordDefinition> getKeywords(){
+            final List<KeywordDefinition> keywords = new ArrayList<>();
+
+            for(Fingerprint fingerprint: fingerprints){
+                keywords.addAll(fingerprint.keywords);
+            }
+
+            for(Group child: children){
+                keywords.addAll(child.getKeywords());
+            }
+
+            return keywords;
+        }
+
+        void prune(){
+            fingerprints.removeIf(fingerprint -> fingerprint.keywords.isEmpty());
+
+            for(Group child: children){
+                child.prune();
+            }
+
+            children.removeIf(child -> child.children.isEmpty() && child.fingerprints.isEmpty());
+        }
     }
 }
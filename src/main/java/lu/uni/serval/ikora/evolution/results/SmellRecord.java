@@ -20,10 +20,10 @@ package lu.uni.serval.ikora.evolution.results;
  * #L%
  */
 
-import lu.uni.serval.ikora.core.analytics.KeywordStatistics;
 import lu.uni.serval.ikora.core.model.TestCase;
 import lu.uni.serval.ikora.evolution.smells.fix.FixResult;
 import lu.uni.serval.ikora.evolution.utils.Hash;
+import lu.uni.serval.ikora.evolution.utils.StatisticsCache;
 
 import java.util.Set;
 
@@ -41,13 +41,13 @@ public class SmellRecord implements BaseRecord {
     private final double beforeFixVersionCount;
     private  final double beforeFixDaysCount;
 
-    public SmellRecord(String version, TestCase testCase, String smellMetricName, double smellMetricRawValue, double smellMetricNormalizedValue, Set<FixResult> fixes) {
+    public SmellRecord(String version, TestCase testCase, StatisticsCache statistics, String smellMetricName, double smellMetricRawValue, double smellMetricNormalizedValue, Set<FixResult> fixes) {
         this.version = version;
         this.projectName = testCase.getProject() != null ? testCase.getProject().getName() : "<NONE>";
         this.testCaseName = testCase.toString();
-        this.testCaseSize = KeywordStatistics.getSize(testCase).getTotalSize();
-        this.testCaseSequence = KeywordStatistics.getSequenceSize(testCase);
-        this.testCaseLevel = KeywordStatistics.getLevel(testCase);
+        this.testCaseSize = statistics.getSize(testCase);
+        this.testCaseSequence = statistics.getSequenceSize(testCase);
+        this.testCaseLevel = statistics.getLevel(testCase);
         this.smellMetricName = smellMetricName;
         this.smellMetricRawValue = smellMetricRawValue;
         this.smellMetricNormalizedValue = smellMetricNormalizedValue;
@@ -20,9 +20,9 @@ package lu.uni.serval.ikora.evolution.results;
  * #L%
  */
 
-import lu.uni.serval.ikora.core.analytics.KeywordStatistics;
 import lu.uni.serval.ikora.core.model.TestCase;
 import lu.uni.serval.ikora.evolution.utils.Hash;
+import lu.uni.serval.ikora.evolution.utils.StatisticsCache;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -36,15 +36,15 @@ public class TestRecord implements BaseRecord {
     final int sequence;
     final List<Integer> stepSequences;
 
-    public TestRecord(TestCase testCase){
+    public TestRecord(TestCase testCase, StatisticsCache statistics){
         this.project = testCase.getName();
         this.suite = testCase.getLibraryName();
         this.name = testCase.getName();
-        this.level = KeywordStatistics.getLevel(testCase);
-        this.statementCount = KeywordStatistics.getStatementCount(testCase);
-        this.sequence = KeywordStatistics.getSequenceSize(testCase);
+        this.level = statistics.getLevel(testCase);
+        this.statementCount = statistics.getStatementCount(testCase);
+        this.sequence = statistics.getSequenceSize(testCase);
         this.stepSequences = testCase.getSteps().stream()
-                .map(KeywordStatistics::getSequenceSize)
+                .map(statistics::getSequenceSize)
                 .collect(Collectors.toList());
     }
 
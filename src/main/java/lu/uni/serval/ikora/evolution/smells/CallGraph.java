@@ -0,0 +1,98 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.analytics.KeywordStatistics;
+import lu.uni.serval.ikora.core.model.KeywordDefinition;
+import lu.uni.serval.ikora.core.model.Projects;
+import lu.uni.serval.ikora.core.model.SourceNode;
+import lu.uni.serval.ikora.core.utils.Ast;
+
+import java.util.*;
+
+public class CallGraph {
+    private final Map<KeywordDefinition, Integer> ids = new IdentityHashMap<>();
+    private final List<KeywordDefinition> definitions = new ArrayList<>();
+    private final Map<SourceNode, List<KeywordDefinition>> callers = new IdentityHashMap<>();
+
+    public CallGraph(){
+    }
+
+    public CallGraph(Projects version){
+        final List<KeywordDefinition> roots = new ArrayList<>(version.getTestCases());
+        roots.addAll(version.getUserKeywords());
+
+        for(KeywordDefinition root: roots){
+            getId(root);
+        }
+
+        for(KeywordDefinition root: roots){
+            callers.put(root, computeCallers(root));
+        }
+    }
+
+    public synchronized List<KeywordDefinition> getCallers(SourceNode node){
+        final KeywordDefinition definition = getDefinition(node);
+        final SourceNode root = definition != null ? definition : node;
+
+        return callers.computeIfAbsent(root, this::computeCallers);
+    }
+
+    public static KeywordDefinition getDefinition(SourceNode node){
+        if(node == null){
+            return null;
+        }
+
+        if(KeywordDefinition.class.isAssignableFrom(node.getClass())){
+            return (KeywordDefinition) node;
+        }
+
+        return Ast.getParentByType(node, KeywordDefinition.class).orElse(null);
+    }
+
+    private List<KeywordDefinition> computeCallers(SourceNode root){
+        final BitSet closure = new BitSet(definitions.size());
+
+        for(KeywordDefinition caller: KeywordStatistics.getDependencies(root)){
+            closure.set(getId(caller));
+        }
+
+        final List<KeywordDefinition> result = new ArrayList<>(closure.cardinality());
+
+        for(int id = closure.nextSetBit(0); id >= 0; id = closure.nextSetBit(id + 1)){
+            result.add(definitions.get(id));
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    private int getId(KeywordDefinition definition){
+        Integer id = ids.get(definition);
+
+        if(id == null){
+            id = definitions.size();
+            ids.put(definition, id);
+            definitions.add(definition);
+        }
+
+        return id;
+    }
+}
@@ -23,76 +23,187 @@ package lu.uni.serval.ikora.evolution.smells;
 import lu.uni.serval.ikora.core.analytics.difference.Edit;
 import lu.uni.serval.ikora.core.analytics.difference.NodeMatcher;
 import lu.uni.serval.ikora.core.analytics.difference.VersionPairs;
+import lu.uni.serval.ikora.core.model.Project;
 import lu.uni.serval.ikora.core.model.Projects;
 import lu.uni.serval.ikora.core.model.SourceNode;
+import lu.uni.serval.ikora.core.model.TestCase;
+import lu.uni.serval.ikora.evolution.utils.StatisticsCache;
 import lu.uni.serval.ikora.smells.SmellMetric;
 import lu.uni.serval.ikora.smells.SmellResult;
 import lu.uni.serval.ikora.smells.SmellResults;
 
+import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class History {
-    Map<Projects, Map<SmellMetric.Type, Set<SourceNode>>> smellyNodes = new HashMap<>();
+    private final Map<Projects, Integer> ordinals = new IdentityHashMap<>();
+    private final List<SmellyNodes> smellyNodes = new ArrayList<>();
+    private final List<Map<SourceNode, Map<SmellMetric.Type, Double>>> smellValues = new ArrayList<>();
+    private final List<Projects> versions = new ArrayList<>();
     private final List<VersionPairs> versionPairs = new ArrayList<>();
+    private final List<Map<SourceNode, Optional<SourceNode>>> previousNodes = new ArrayList<>();
+    private final Map<SourceNode, Lineage> lineageOrigins = new IdentityHashMap<>();
+    private final Map<SourceNode, Lineage> lineages = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Map<Projects, StatisticsCache> statistics = new IdentityHashMap<>();
+    private final List<CallGraph> callGraphs = new ArrayList<>();
     private boolean ignoreProjectName = false;
+    private boolean trackLineage = true;
     private Projects lastVersion = null;
+    private int released = 0;
 
     public void setIgnoreProjectName(boolean ignoreProjectName) {
         this.ignoreProjectName = ignoreProjectName;
     }
 
+    public void setTrackLineage(boolean trackLineage) {
+        this.trackLineage = trackLineage;
+    }
+
     public void addVersion(Projects version){
-        smellyNodes.put(version, new EnumMap<>(SmellMetric.Type.class));
+        final int ordinal = smellyNodes.size();
 
-        if(lastVersion != null){
-            VersionPairs pairs = NodeMatcher.computeVersionsPairs(lastVersion, version, this.ignoreProjectName);
-            versionPairs.add(pairs);
-        }
+        ordinals.put(version, ordinal);
+        smellyNodes.add(new SmellyNodes());
+        smellValues.add(new IdentityHashMap<>());
+        callGraphs.add(null);
+        previousNodes.add(Collections.synchronizedMap(new IdentityHashMap<>()));
+        addVersionPairs(version);
 
+        evictStatistics(version);
+        release(ordinal - 1);
         lastVersion = version;
     }
 
+    private synchronized void release(int previous){
+        for(; released < previous; ++released){
+            smellyNodes.set(released, null);
+            smellValues.set(released, null);
+            callGraphs.set(released, null);
+
+            if(!trackLineage){
+                ordinals.remove(versions.get(released));
+                versions.set(released, null);
+                versionPairs.set(released, null);
+                previousNodes.set(released, null);
+            }
+        }
+
+        if(!trackLineage){
+            lineageOrigins.clear();
+            lineages.clear();
+        }
+    }
+
+    private synchronized void addVersionPairs(Projects version){
+        versions.add(version);
+        versionPairs.add(null);
+    }
+
+    private synchronized VersionPairs getVersionPairs(int ordinal){
+        VersionPairs pairs = versionPairs.get(ordinal);
+
+        if(pairs == null && ordinal > 0 && versions.get(ordinal - 1) != null){
+            pairs = NodeMatcher.computeVersionsPairs(versions.get(ordinal - 1), versions.get(ordinal), this.ignoreProjectName);
+            versionPairs.set(ordinal, pairs);
+        }
+
+        return pairs;
+    }
+
+    synchronized boolean isPaired(Projects version){
+        final int ordinal = getOrdinal(version);
+        return ordinal >= 0 && versionPairs.get(ordinal) != null;
+    }
+
+    public synchronized StatisticsCache getStatistics(Projects version){
+        return statistics.computeIfAbsent(version, v -> new StatisticsCache());
+    }
+
+    private synchronized void evictStatistics(Projects version){
+        statistics.keySet().removeIf(v -> v != version && v != lastVersion);
+    }
+
     public boolean hasPreviousVersion(){
-        return !versionPairs.isEmpty();
+        return versions.size() > 1;
     }
 
     public Set<Edit> getEdits(Projects version){
-        return getChanges(version)
+        return findPreviousPair(version)
                 .map(VersionPairs::getEdits)
                 .orElse(Collections.emptySet());
     }
 
-    public void addSmells(Projects version, SmellResults smellResults) {
-        var nodes = smellyNodes.get(version);
+    public synchronized void addSmells(Projects version, TestCase testCase, SmellResults smellResults) {
+        var nodes = smellyNodes.get(getOrdinal(version));
+        var values = new EnumMap<SmellMetric.Type, Double>(SmellMetric.Type.class);
 
         for(SmellResult smell: smellResults){
-            final Set<SourceNode> nodesByType = nodes.getOrDefault(smell.getType(), new HashSet<>());
-            nodesByType.addAll(smell.getNodes().stream().filter(Objects::nonNull).collect(Collectors.toSet()));
-            nodes.putIfAbsent(smell.getType(), nodesByType);
+            nodes.add(smell.getType(), smell.getNodes());
+            values.put(smell.getType(), smell.getRawValue());
         }
+
+        smellValues.get(getOrdinal(version)).put(testCase, values);
     }
 
-    public Set<SourceNode> getPreviousSmellyNodes(Projects version, SmellMetric.Type smellType) {
-        final Optional<Projects> previousVersion = findPreviousVersion(version);
+    public synchronized OptionalDouble getPreviousSmellValue(Projects version, TestCase testCase, SmellMetric.Type smellType){
+        final int ordinal = getOrdinal(version);
 
-        if(previousVersion.isEmpty()){
-            return Collections.emptySet();
+        if(ordinal <= 0){
+            return OptionalDouble.empty();
+        }
+
+        final Optional<SourceNode> previousTestCase = findPreviousNode(ordinal, testCase);
+
+        if(previousTestCase.isEmpty()){
+            return OptionalDouble.empty();
         }
 
-        return smellyNodes
-                .getOrDefault(previousVersion.get(), Collections.emptyMap())
-                .getOrDefault(smellType, Collections.emptySet());
+        final Map<SourceNode, Map<SmellMetric.Type, Double>> values = smellValues.get(ordinal - 1);
+
+        if(values == null){
+            return OptionalDouble.empty();
+        }
+
+        final Double value = values.getOrDefault(previousTestCase.get(), Collections.emptyMap())
+                .get(smellType);
+
+        return value != null ? OptionalDouble.of(value) : OptionalDouble.empty();
     }
 
-    public List<SourceNode> getSequence(Projects version, Edit edit) {
-        Optional<Projects> previousVersion = findPreviousVersion(version);
+    public List<SourceNode> getPreviousSmellyNodes(Projects version, SmellMetric.Type smellType) {
+        final int ordinal = getOrdinal(version);
 
-        if(previousVersion.isEmpty()){
+        final SmellyNodes nodes = ordinal > 0 ? smellyNodes.get(ordinal - 1) : null;
+
+        if(nodes == null){
+            return Collections.emptyList();
+        }
+
+        return nodes.get(smellType);
+    }
+
+    public synchronized List<SourceNode> getSmellyNodes(Projects version) {
+        final int ordinal = getOrdinal(version);
+
+        final SmellyNodes nodes = ordinal >= 0 ? smellyNodes.get(ordinal) : null;
+
+        if(nodes == null){
             return Collections.emptyList();
         }
 
-        return getSequence(previousVersion.get(), edit.getLeft());
+        return nodes.getAll();
+    }
+
+    public boolean wasSmelly(Projects version, SmellMetric.Type smellType, SourceNode previousNode) {
+        final int ordinal = getOrdinal(version);
+
+        final SmellyNodes nodes = ordinal > 0 ? smellyNodes.get(ordinal - 1) : null;
+
+        if(nodes == null || previousNode == null){
+            return false;
+        }
+
+        return nodes.contains(smellType, previousNode);
     }
 
     public Optional<SourceNode> findPreviousNode(Projects version, SourceNode node){
@@ -100,42 +211,90 @@ public class History {
             return Optional.empty();
         }
 
-        final Optional<VersionPairs> pair = findPreviousPair(version);
+        final int ordinal = getOrdinal(version);
 
-        if(pair.isEmpty()){
+        if(ordinal <= 0){
             return Optional.empty();
         }
 
-        return pair.get().findPrevious(node);
+        return findPreviousNode(ordinal, node);
+    }
+
+    public synchronized CallGraph getCallGraph(Projects version){
+        final int ordinal = getOrdinal(version);
+
+        if(ordinal < 0){
+            return new CallGraph(version);
+        }
+
+        CallGraph callGraph = callGraphs.get(ordinal);
+
+        if(callGraph == null){
+            callGraph = new CallGraph(version);
+            callGraphs.set(ordinal, callGraph);
+        }
+
+        return callGraph;
     }
 
-    public List<SourceNode> getSequence(Projects version, SourceNode node){
+    public Lineage getLineage(Projects version, Edit edit){
+        Optional<Projects> previousVersion = findPreviousVersion(version);
+
+        if(previousVersion.isEmpty()){
+            return Lineage.empty();
+        }
+
+        return getLineage(previousVersion.get(), edit.getLeft());
+    }
+
+    public Lineage getLineage(Projects version, SourceNode node){
         if(node == null){
-            return Collections.emptyList();
+            return Lineage.empty();
         }
 
-        final List<SourceNode> history = new LinkedList<>();
-        history.add(node);
+        final Deque<SourceNode> sequence = new ArrayDeque<>();
+        Lineage lineage = lineages.get(node);
 
-        Optional<VersionPairs> previousPair = findPreviousPair(version);
+        int ordinal = getOrdinal(version);
 
-        while (previousPair.isPresent()){
-            Optional<SourceNode> previousNode = previousPair.get().findPrevious(node);
+        while (lineage == null){
+            sequence.push(node);
+
+            final Optional<SourceNode> previousNode = ordinal > 0 ? findPreviousNode(ordinal, node) : Optional.empty();
             if(previousNode.isEmpty()){
                 break;
             }
 
             node = previousNode.get();
-            history.add(node);
+            lineage = lineages.get(node);
 
-            previousPair = findPreviousPair(previousPair.get().getLeftVersion());
+            --ordinal;
         }
 
-        return history;
+        while (!sequence.isEmpty()){
+            node = sequence.pop();
+            lineage = lineage != null ? lineage.next(getDate(node)) : createLineage(node);
+            lineages.put(node, lineage);
+        }
+
+        return lineage;
+    }
+
+    public void addLineageOrigins(Map<SourceNode, Lineage> origins){
+        lineageOrigins.putAll(origins);
+        lineages.clear();
+    }
+
+    private Lineage createLineage(SourceNode node){
+        final Lineage lineage = new Lineage(1, getDate(node));
+        final Lineage origin = lineageOrigins.get(node);
+
+        return origin != null ? lineage.extend(origin) : lineage;
     }
 
-    private Optional<VersionPairs> getChanges(Projects version){
-        return versionPairs.stream().filter(v -> v.getRightVersion() == version).findAny();
+    private static Instant getDate(SourceNode node){
+        final Project project = node.getProject();
+        return project != null ? project.getDate() : null;
     }
 
     public Optional<Projects> findPreviousVersion(Projects version){
@@ -143,8 +302,35 @@ public class History {
     }
 
     private Optional<VersionPairs> findPreviousPair(Projects version){
-        return versionPairs.stream()
-                .filter(v -> v.getRightVersion() == version)
-                .findAny();
+        final int ordinal = getOrdinal(version);
+
+        if(ordinal <= 0){
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(getVersionPairs(ordinal));
+    }
+
+    private Optional<SourceNode> findPreviousNode(int ordinal, SourceNode node){
+        final Map<SourceNode, Optional<SourceNode>> index = previousNodes.get(ordinal);
+
+        if(index == null){
+            return Optional.empty();
+        }
+
+        Optional<SourceNode> previousNode = index.get(node);
+
+        if(previousNode == null){
+            final VersionPairs pairs = getVersionPairs(ordinal);
+            previousNode = pairs != null ? pairs.findPrevious(node) : Optional.empty();
+            index.put(node, previousNode);
+        }
+
+        return previousNode;
+    }
+
+    private int getOrdinal(Projects version){
+        final Integer ordinal = ordinals.get(version);
+        return ordinal != null ? ordinal : -1;
     }
 }
@@ -0,0 +1,209 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.analytics.difference.Edit;
+import lu.uni.serval.ikora.core.model.*;
+import lu.uni.serval.ikora.evolution.utils.NodePaths;
+import lu.uni.serval.ikora.smells.SmellConfiguration;
+import lu.uni.serval.ikora.smells.SmellMetric;
+import lu.uni.serval.ikora.smells.SmellResult;
+import lu.uni.serval.ikora.smells.SmellResults;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class IncrementalSmells {
+    private final SmellChecks checks;
+    private final History history;
+    private final boolean ignoreProjectName;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong fallbacks;
+
+    private Projects version = null;
+    private Map<SourceNode, SmellResults> previousResults = Collections.emptyMap();
+    private Map<SourceNode, SmellResults> results = Collections.synchronizedMap(new IdentityHashMap<>());
+    private Set<SourceNode> impacted = Collections.emptySet();
+
+    public IncrementalSmells(SmellChecks checks, History history, boolean ignoreProjectName){
+        this.checks = checks;
+        this.history = history;
+        this.ignoreProjectName = ignoreProjectName;
+        this.hits = new AtomicLong(0);
+        this.misses = new AtomicLong(0);
+        this.fallbacks = new AtomicLong(0);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+    public SmellResults computeMetrics(Projects version, TestCase testCase, SmellConfiguration configuration, Supplier<SmellResults> detection){
+        final Map<SourceNode, SmellResults> previous = getPreviousResults(version);
+        final Optional<SmellResults> copied = copyForward(version, testCase, configuration, previous);
+
+        final SmellResults smellResults;
+
+        if(copied.isPresent()){
+            hits.incrementAndGet();
+            smellResults = copied.get();
+        }
+        else{
+            misses.incrementAndGet();
+            smellResults = detection.get();
+        }
+
+        results.put(testCase, smellResults);
+
+        return smellResults;
+    }
+
+    private synchronized Map<SourceNode, SmellResults> getPreviousResults(Projects version){
+        if(this.version != version){
+            final Optional<Projects> previousVersion = history.findPreviousVersion(version);
+
+            final Optional<Set<SourceNode>> testCases = previousVersion.isPresent() && previousVersion.get() == this.version
+                    ? findImpacted(version)
+                    : Optional.empty();
+
+            if(previousVersion.isPresent() && previousVersion.get() == this.version && testCases.isEmpty()){
+                fallbacks.incrementAndGet();
+            }
+
+            previousResults = testCases.isPresent() ? results : Collections.emptyMap();
+            impacted = testCases.orElse(Collections.emptySet());
+            results = Collections.synchronizedMap(new IdentityHashMap<>());
+
+            this.version = version;
+        }
+
+        return previousResults;
+    }
+
+    private Optional<Set<SourceNode>> findImpacted(Projects version){
+        final CallGraph callGraph = history.getCallGraph(version);
+        final Set<SourceNode> testCases = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for(Edit edit: history.getEdits(version)){
+            for(SourceNode node: new SourceNode[] {edit.getLeft(), edit.getRight()}){
+                if(node == null){
+                    continue;
+                }
+
+                // edits outside of any keyword (variable tables, settings, imports) can reach
+                // every test case through resources and variable scopes the call graph does not
+                // track, so the whole version is detected again instead of copied
+                if(CallGraph.getDefinition(node) == null){
+                    return Optional.empty();
+                }
+
+                for(KeywordDefinition caller: callGraph.getCallers(node)){
+                    if(caller instanceof TestCase){
+                        testCases.add(caller);
+                    }
+                }
+            }
+        }
+
+        return Optional.of(testCases);
+    }
+
+    private Optional<SmellResults> copyForward(Projects version, TestCase testCase, SmellConfiguration configuration, Map<SourceNode, SmellResults> previous){
+        if(previous.isEmpty() || impacted.contains(testCase)){
+            return Optional.empty();
+        }
+
+        final Optional<SourceNode> previousTestCase = history.findPreviousNode(version, testCase);
+
+        if(previousTestCase.isEmpty() || impacted.contains(previousTestCase.get())){
+            return Optional.empty();
+        }
+
+        final SmellResults previousResults = previous.get(previousTestCase.get());
+
+        if(previousResults == null){
+            return Optional.empty();
+        }
+
+        final SmellResults copied = new SmellResults();
+
+        for(SmellResult result: previousResults){
+            if(SmellCache.VERSION_DEPENDENT.contains(result.getType())){
+                continue;
+            }
+
+            final Set<SourceNode> nodes = new HashSet<>(result.getNodes().size());
+
+            for(SourceNode node: result.getNodes()){
+                if(node == null){
+                    nodes.add(null);
+                    continue;
+                }
+
+                final Optional<SourceNode> current = findCurrent(version, node);
+
+                if(current.isEmpty()){
+                    return Optional.empty();
+                }
+
+                nodes.add(current.get());
+            }
+
+            copied.add(new SmellResult(result.getType(), result.getRawValue(), result.getNormalizedValue(), nodes));
+        }
+
+        for(SmellMetric.Type type: SmellCache.VERSION_DEPENDENT){
+            copied.add(checks.computeMetric(type, testCase, configuration));
+        }
+
+        return Optional.of(copied);
+    }
+
+    private Optional<SourceNode> findCurrent(Projects version, SourceNode previousNode){
+        final KeywordDefinition previousDefinition = CallGraph.getDefinition(previousNode);
+
+        if(previousDefinition == null){
+            return Optional.empty();
+        }
+
+        final Optional<SourceNode> current = NodePaths.encode(previousNode, ignoreProjectName)
+                .flatMap(path -> NodePaths.decode(version, path));
+
+        if(current.isEmpty()){
+            return Optional.empty();
+        }
+
+        final KeywordDefinition definition = CallGraph.getDefinition(current.get());
+        final Optional<SourceNode> matched = history.findPreviousNode(version, definition);
+
+        return matched.isPresent() && matched.get() == previousDefinition ? current : Optional.empty();
+    }
+}
@@ -0,0 +1,114 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.analytics.visitor.PathMemory;
+import lu.uni.serval.ikora.core.analytics.visitor.TreeVisitor;
+import lu.uni.serval.ikora.core.analytics.visitor.VisitorMemory;
+import lu.uni.serval.ikora.core.model.*;
+import lu.uni.serval.ikora.smells.NodeUtils;
+import lu.uni.serval.ikora.smells.SmellMetric;
+import lu.uni.serval.ikora.smells.SmellResult;
+
+import java.util.*;
+
+public class KeywordSmells {
+    private final Map<UserKeyword, Boolean> assertions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public SmellResult computeMissingAssertion(TestCase testCase){
+        final AssertionVisitor visitor = new AssertionVisitor(Collections.newSetFromMap(new IdentityHashMap<>()));
+        visitor.visit(testCase, new PathMemory());
+
+        final double value = visitor.found ? 0. : 1.;
+        final Set<SourceNode> nodes = visitor.found ? Collections.emptySet() : Collections.singleton(testCase);
+
+        return new SmellResult(SmellMetric.Type.MISSING_ASSERTION, value, value, nodes);
+    }
+
+    boolean isMemoized(UserKeyword keyword){
+        return assertions.containsKey(keyword);
+    }
+
+    private boolean hasAssertion(UserKeyword keyword, AssertionVisitor caller){
+        final Boolean known = assertions.get(keyword);
+
+        if(known != null){
+            return known;
+        }
+
+        // recursive keywords are only known once the whole cycle has been traversed
+        if(caller.inProgress.contains(keyword)){
+            caller.complete = false;
+            return false;
+        }
+
+        caller.inProgress.add(keyword);
+
+        final AssertionVisitor visitor = new AssertionVisitor(caller.inProgress);
+        visitor.traverse(keyword);
+
+        caller.inProgress.remove(keyword);
+
+        if(visitor.found || visitor.complete){
+            assertions.put(keyword, visitor.found);
+        }
+        else{
+            caller.complete = false;
+        }
+
+        return visitor.found;
+    }
+
+    private class AssertionVisitor extends TreeVisitor {
+        private final Set<UserKeyword> inProgress;
+        private boolean found = false;
+        private boolean complete = true;
+
+        AssertionVisitor(Set<UserKeyword> inProgress){
+            this.inProgress = inProgress;
+        }
+
+        void traverse(UserKeyword keyword){
+            super.visit(keyword, new PathMemory());
+        }
+
+        @Override
+        public void visit(KeywordCall call, VisitorMemory memory) {
+            if(found){
+                return;
+            }
+
+            if(NodeUtils.isType(call, Keyword.Type.ASSERTION, false)){
+                found = true;
+                return;
+            }
+
+            super.visit(call, memory);
+        }
+
+        @Override
+        public void visit(UserKeyword keyword, VisitorMemory memory) {
+            if(!found){
+                found = hasAssertion(keyword, this);
+            }
+        }
+    }
+}
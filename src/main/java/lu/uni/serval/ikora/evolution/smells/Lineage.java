@@ -0,0 +1,67 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Instant;
+
+public class Lineage {
+    private static final Lineage EMPTY = new Lineage(0, null);
+
+    private final int size;
+    private final Instant introductionDate;
+
+    public Lineage(int size, Instant introductionDate) {
+        this.size = size;
+        this.introductionDate = introductionDate;
+    }
+
+    public static Lineage empty(){
+        return EMPTY;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Instant getIntroductionDate() {
+        return introductionDate;
+    }
+
+    public Lineage next(Instant date){
+        return new Lineage(size + 1, earliest(introductionDate, date));
+    }
+
+    public Lineage extend(Lineage origin){
+        return new Lineage(size + origin.size - 1, earliest(introductionDate, origin.introductionDate));
+    }
+
+    static Instant earliest(Instant date1, Instant date2){
+        if(date1 == null){
+            return date2;
+        }
+
+        if(date2 == null){
+            return date1;
+        }
+
+        return date1.isBefore(date2) ? date1 : date2;
+    }
+}
@@ -0,0 +1,425 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lu.uni.serval.ikora.core.builder.parser.Line;
+import lu.uni.serval.ikora.core.model.*;
+import lu.uni.serval.ikora.evolution.utils.NodePaths;
+import lu.uni.serval.ikora.smells.SmellConfiguration;
+import lu.uni.serval.ikora.smells.SmellMetric;
+import lu.uni.serval.ikora.smells.SmellResult;
+import lu.uni.serval.ikora.smells.SmellResults;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SmellCache {
+    private static final Logger logger = LogManager.getLogger(SmellCache.class);
+
+    static final Set<SmellMetric.Type> VERSION_DEPENDENT = EnumSet.of(SmellMetric.Type.ARMY_OF_CLONES);
+
+    private static final int SCHEMA_VERSION = 2;
+    private static final String ENTRY_SUFFIX = ".json";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final SmellChecks checks;
+    private final File location;
+    private final long capacity;
+    private final boolean ignoreProjectName;
+    private final ObjectMapper mapper;
+    private final Map<String, List<Entry>> entries;
+    private final LinkedHashMap<String, Long> files;
+    private final String salt;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong bypassed;
+    private long size;
+
+    public SmellCache(SmellChecks checks, File location, boolean ignoreProjectName) throws IOException {
+        this(checks, location, Long.MAX_VALUE, ignoreProjectName);
+    }
+
+    public SmellCache(SmellChecks checks, File location, long capacity, boolean ignoreProjectName) throws IOException {
+        final Optional<String> versions = getLibraryVersions();
+
+        if(location != null && versions.isEmpty()){
+            logger.log(Level.WARN, "Cannot determine the ikora library versions, smell results will not be persisted");
+        }
+
+        if(location != null && versions.isPresent() && !location.exists() && !location.mkdirs()){
+            throw new IOException(String.format("Failed to create directory: %s", location.getAbsolutePath()));
+        }
+
+        this.checks = checks;
+        this.location = versions.isPresent() ? location : null;
+        this.capacity = capacity;
+        this.ignoreProjectName = ignoreProjectName;
+        this.mapper = JsonMapper.builder().enable(JsonReadFeature.ALLOW_NON_NUMERIC_NUMBERS).build();
+        this.entries = new ConcurrentHashMap<>();
+        this.files = new LinkedHashMap<>(16, 0.75f, true);
+        this.salt = String.format("%d;%s", SCHEMA_VERSION, versions.orElse("unknown"));
+        this.hits = new AtomicLong(0);
+        this.misses = new AtomicLong(0);
+        this.bypassed = new AtomicLong(0);
+        this.size = 0;
+
+        load();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getBypassed() {
+        return bypassed.get();
+    }
+
+    public SmellResults computeMetrics(Projects version, TestCase testCase, SmellConfiguration configuration){
+        final Map<String, SourceFile> sourceFiles = testCase.getSourceFile() != null ? getSourceFiles(testCase.getSourceFile()) : Collections.emptyMap();
+        final Optional<String> key = computeKey(testCase, configuration, sourceFiles);
+
+        if(key.isPresent()){
+            final Optional<SmellResults> cached = find(key.get()).flatMap(e -> restore(version, testCase, configuration, e));
+
+            if(cached.isPresent()){
+                hits.incrementAndGet();
+                return cached.get();
+            }
+        }
+
+        misses.incrementAndGet();
+
+        final SmellResults results = checks.computeMetrics(testCase, configuration);
+        key.ifPresent(k -> store(k, results, sourceFiles.keySet()));
+
+        return results;
+    }
+
+    private Optional<SmellResults> restore(Projects version, TestCase testCase, SmellConfiguration configuration, List<Entry> cached){
+        final SmellResults results = new SmellResults();
+
+        for(Entry entry: cached){
+            final Set<SourceNode> nodes = new HashSet<>(entry.nodes.size());
+
+            for(String path: entry.nodes){
+                final Optional<SourceNode> node = NodePaths.decode(version, path);
+
+                if(node.isEmpty()){
+                    return Optional.empty();
+                }
+
+                nodes.add(node.get());
+            }
+
+            results.add(new SmellResult(entry.type, entry.rawValue, entry.normalizedValue, nodes));
+        }
+
+        for(SmellMetric.Type type: VERSION_DEPENDENT){
+            results.add(checks.computeMetric(type, testCase, configuration));
+        }
+
+        return Optional.of(results);
+    }
+
+    private Optional<List<Entry>> find(String key){
+        final List<Entry> cached = entries.get(key);
+
+        if(cached != null || location == null){
+            return Optional.ofNullable(cached);
+        }
+
+        final File file = new File(location, key + ENTRY_SUFFIX);
+
+        if(!file.exists()){
+            return Optional.empty();
+        }
+
+        try {
+            final List<Entry> loaded = mapper.readValue(file, new TypeReference<List<Entry>>() {});
+            entries.put(key, loaded);
+            touch(key, file);
+
+            return Optional.of(loaded);
+        } catch (IOException e) {
+            logger.log(Level.WARN, "Failed to read cached smells {}: {}", file.getAbsolutePath(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void store(String key, SmellResults results, Set<String> sourceFiles){
+        final List<Entry> cached = new ArrayList<>(results.getNumberMetrics());
+
+        for(SmellResult result: results){
+            if(VERSION_DEPENDENT.contains(result.getType())){
+                continue;
+            }
+
+            final List<String> paths = new ArrayList<>(result.getNodes().size());
+
+            for(SourceNode node: result.getNodes()){
+                if(node == null){
+                    continue;
+                }
+
+                final Optional<String> path = NodePaths.encode(node, ignoreProjectName);
+
+                if(path.isEmpty() || !sourceFiles.contains(NodePaths.getRoot(path.get()))){
+                    return;
+                }
+
+                paths.add(path.get());
+            }
+
+            cached.add(new Entry(result.getType(), result.getRawValue(), result.getNormalizedValue(), paths));
+        }
+
+        entries.put(key, cached);
+
+        if(location != null){
+            save(key, cached);
+        }
+    }
+
+    private void save(String key, List<Entry> cached){
+        final File file = new File(location, key + ENTRY_SUFFIX);
+        final File temporary = new File(location, String.format("%s-%d%s", key, Thread.currentThread().getId(), TEMPORARY_SUFFIX));
+
+        try {
+            mapper.writeValue(temporary, cached);
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.log(Level.WARN, "Failed to write cached smells {}: {}", file.getAbsolutePath(), e.getMessage());
+            return;
+        }
+
+        synchronized (this){
+            final Long previous = files.put(key, file.length());
+            size += file.length() - (previous != null ? previous : 0);
+
+            evict(key);
+        }
+    }
+
+    private synchronized void touch(String key, File file){
+        if(files.get(key) != null && !file.setLastModified(System.currentTimeMillis())){
+            logger.log(Level.DEBUG, "Failed to update access time of cached smells {}", key);
+        }
+    }
+
+    private void evict(String protectedKey){
+        final Iterator<Map.Entry<String, Long>> iterator = files.entrySet().iterator();
+
+        while (size > capacity && iterator.hasNext()){
+            final Map.Entry<String, Long> entry = iterator.next();
+
+            if(entry.getKey().equals(protectedKey)){
+                continue;
+            }
+
+            FileUtils.deleteQuietly(new File(location, entry.getKey() + ENTRY_SUFFIX));
+            entries.remove(entry.getKey());
+            size -= entry.getValue();
+            iterator.remove();
+        }
+    }
+
+    private void load(){
+        final File[] cached = location != null ? location.listFiles(File::isFile) : null;
+
+        if(cached == null){
+            return;
+        }
+
+        Arrays.sort(cached, Comparator.comparingLong(File::lastModified));
+
+        for(File file: cached){
+            final String name = file.getName();
+
+            if(name.endsWith(TEMPORARY_SUFFIX)){
+                FileUtils.deleteQuietly(file);
+            }
+            else if(name.endsWith(ENTRY_SUFFIX)){
+                files.put(name.substring(0, name.length() - ENTRY_SUFFIX.length()), file.length());
+                size += file.length();
+            }
+        }
+
+        synchronized (this){
+            evict(null);
+        }
+    }
+
+    private Optional<String> computeKey(TestCase testCase, SmellConfiguration configuration, Map<String, SourceFile> sourceFiles){
+        final Optional<String> path = NodePaths.encode(testCase, ignoreProjectName);
+
+        if(sourceFiles.isEmpty() || path.isEmpty()){
+            return Optional.empty();
+        }
+
+        if(sourceFiles.values().stream().anyMatch(SmellCache::hasVariableFiles)){
+            bypassed.incrementAndGet();
+            return Optional.empty();
+        }
+
+        final MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            return Optional.empty();
+        }
+
+        update(digest, salt);
+        update(digest, String.format("%d;%d;%d;%s;%s;%s",
+                configuration.getMaximumStepSize(),
+                configuration.getMaximumLocatorSize(),
+                configuration.getMaximumSetupSize(),
+                configuration.getEagerTestThreshold(),
+                configuration.getAssertionDensityThreshold(),
+                configuration.getSetupTestRatio()
+        ));
+
+        update(digest, path.get());
+
+        for(Map.Entry<String, SourceFile> file: sourceFiles.entrySet()){
+            update(digest, file.getKey());
+
+            for(Line line: file.getValue().getLines()){
+                update(digest, line.getText());
+            }
+        }
+
+        final StringBuilder key = new StringBuilder();
+
+        for(byte b: digest.digest()){
+            key.append(String.format("%02x", b));
+        }
+
+        return Optional.of(key.toString());
+    }
+
+    private Map<String, SourceFile> getSourceFiles(SourceFile sourceFile){
+        final Map<String, SourceFile> sourceFiles = new TreeMap<>();
+        final Deque<SourceFile> toVisit = new ArrayDeque<>();
+
+        toVisit.add(sourceFile);
+
+        if(sourceFile.getProject() != null){
+            sourceFile.getProject().getSourceFiles().stream()
+                    .filter(f -> f.getName().startsWith("__init__"))
+                    .forEach(toVisit::add);
+        }
+
+        while (!toVisit.isEmpty()){
+            final SourceFile current = toVisit.pop();
+            final String name = NodePaths.encode(current, ignoreProjectName).orElse(current.getName());
+
+            if(sourceFiles.putIfAbsent(name, current) != null || current.getSettings() == null){
+                continue;
+            }
+
+            for(Resources resources: current.getSettings().getResources()){
+                resources.getTarget().ifPresent(toVisit::add);
+            }
+        }
+
+        return sourceFiles;
+    }
+
+    private static boolean hasVariableFiles(SourceFile sourceFile){
+        return sourceFile.getSettings() != null && !sourceFile.getSettings().getVariableFiles().isEmpty();
+    }
+
+    private static Optional<String> getLibraryVersions(){
+        final Optional<String> core = getLibraryVersion(Projects.class, "ikora-core");
+        final Optional<String> smells = getLibraryVersion(SmellResult.class, "ikora-smells");
+
+        if(core.isEmpty() || smells.isEmpty()){
+            return Optional.empty();
+        }
+
+        return Optional.of(String.format("%s;%s", core.get(), smells.get()));
+    }
+
+    private static Optional<String> getLibraryVersion(Class<?> type, String artifactId){
+        final String resource = String.format("/META-INF/maven/lu.uni.serval/%s/pom.properties", artifactId);
+
+        try(InputStream stream = type.getResourceAsStream(resource)){
+            if(stream == null){
+                return Optional.empty();
+            }
+
+            final Properties properties = new Properties();
+            properties.load(stream);
+
+            return Optional.ofNullable(properties.getProperty("version"));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void update(MessageDigest digest, String text){
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte)'\n');
+    }
+
+    private static class Entry {
+        @JsonProperty(value = "type")
+        private SmellMetric.Type type;
+        @JsonProperty(value = "raw")
+        private double rawValue;
+        @JsonProperty(value = "normalized")
+        private double normalizedValue;
+        @JsonProperty(value = "nodes")
+        private List<String> nodes;
+
+        private Entry() {}
+
+        private Entry(SmellMetric.Type type, double rawValue, double normalizedValue, List<String> nodes) {
+            this.type = type;
+            this.rawValue = rawValue;
+            this.normalizedValue = normalizedValue;
+            this.nodes = nodes;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.model.TestCase;
+import lu.uni.serval.ikora.smells.SmellCheck;
+import lu.uni.serval.ikora.smells.SmellConfiguration;
+import lu.uni.serval.ikora.smells.SmellDetector;
+import lu.uni.serval.ikora.smells.SmellMetric;
+import lu.uni.serval.ikora.smells.SmellResult;
+import lu.uni.serval.ikora.smells.SmellResults;
+import lu.uni.serval.ikora.smells.utils.NLPUtils;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+import static lu.uni.serval.ikora.smells.SmellMetric.Type.*;
+
+public class SmellChecks {
+    private final EnumMap<SmellMetric.Type, SmellCheck> checks;
+    private final KeywordSmells keywordSmells;
+
+    public SmellChecks() {
+        this(false);
+    }
+
+    public SmellChecks(boolean keywordSmells) {
+        this.checks = new EnumMap<>(SmellMetric.Type.class);
+        this.keywordSmells = keywordSmells ? new KeywordSmells() : null;
+        initialize();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void initialize() {
+        try {
+            final Field field = SmellDetector.class.getDeclaredField("smellChecks");
+            field.setAccessible(true);
+
+            this.checks.putAll((Map<SmellMetric.Type, SmellCheck>) field.get(null));
+        } catch (NoSuchFieldException | IllegalAccessException | ClassCastException | SecurityException e) {
+            throw new IllegalStateException("Failed to read the smell checks registered in ikora-smells", e);
+        }
+
+        final int expected = SmellDetector.all().getNumberMetrics();
+
+        if(this.checks.size() != expected){
+            throw new IllegalStateException(String.format(
+                    "Smell checks are out of sync with ikora-smells: expected %d checks but got %d",
+                    expected,
+                    this.checks.size()
+            ));
+        }
+    }
+
+    public Set<SmellMetric.Type> getTypes() {
+        return Collections.unmodifiableSet(checks.keySet());
+    }
+
+    public SmellResults computeMetrics(TestCase testCase, SmellConfiguration configuration){
+        final SmellResults results = new SmellResults();
+
+        for(SmellMetric.Type type: checks.keySet()){
+            results.add(computeMetric(type, testCase, configuration));
+        }
+
+        return results;
+    }
+
+    public SmellResult computeMetric(SmellMetric.Type type, TestCase testCase, SmellConfiguration configuration){
+        final SmellCheck check = checks.get(type);
+
+        if(type == MISSING_ASSERTION && keywordSmells != null){
+            return keywordSmells.computeMissingAssertion(testCase);
+        }
+
+        if(type == NARCISSISTIC){
+            // the part-of-speech tagger behind NLPUtils is shared and not thread safe
+            synchronized (NLPUtils.class){
+                return check.computeMetric(testCase, configuration);
+            }
+        }
+
+        return check.computeMetric(testCase, configuration);
+    }
+}
@@ -28,22 +28,56 @@ import lu.uni.serval.ikora.smells.*;
 
 import lu.uni.serval.ikora.evolution.results.BaseRecord;
 import lu.uni.serval.ikora.evolution.results.SmellRecord;
+import lu.uni.serval.ikora.evolution.utils.StatisticsCache;
 
 import java.util.*;
 
 public class SmellRecordAccumulator {
-    private final List<BaseRecord> records = new ArrayList<>();
+    private final List<BaseRecord> records = Collections.synchronizedList(new ArrayList<>());
     private final FixAccumulator fixAccumulator;
+    private final History history;
+    private final boolean fixGating;
 
-    public SmellRecordAccumulator(FixAccumulator fixAccumulator) {
+    public SmellRecordAccumulator(FixAccumulator fixAccumulator, History history, boolean fixGating) {
         this.fixAccumulator = fixAccumulator;
+        this.history = history;
+        this.fixGating = fixGating;
     }
 
     public void addTestCase(Projects version, TestCase testCase, SmellResults smells){
+        addRecords(createRecords(version, testCase, smells));
+    }
+
+    public List<BaseRecord> createRecords(Projects version, TestCase testCase, SmellResults smells){
+        final List<BaseRecord> testCaseRecords = new ArrayList<>(smells.getNumberMetrics());
+        final StatisticsCache statistics = history.getStatistics(version);
+
         for(SmellResult smell: smells){
-            final Set<FixResult> fixes = fixAccumulator.collect(version, testCase, smell.getType());
-            records.add(new SmellRecord(version.getVersionId(), testCase, smell.getType().name(), smell.getRawValue(), smell.getNormalizedValue(), fixes));
+            final Set<FixResult> fixes = isFixCandidate(version, testCase, smell)
+                    ? fixAccumulator.collect(version, testCase, smell.getType())
+                    : Collections.emptySet();
+            testCaseRecords.add(new SmellRecord(version.getVersionId(), testCase, statistics, smell.getType().name(), smell.getRawValue(), smell.getNormalizedValue(), fixes));
+        }
+
+        return testCaseRecords;
+    }
+
+    private boolean isFixCandidate(Projects version, TestCase testCase, SmellResult smell){
+        if(!fixGating){
+            return true;
         }
+
+        final OptionalDouble previousValue = history.getPreviousSmellValue(version, testCase, smell.getType());
+
+        if(previousValue.isEmpty() || Double.isNaN(previousValue.getAsDouble()) || Double.isNaN(smell.getRawValue())){
+            return true;
+        }
+
+        return smell.getRawValue() < previousValue.getAsDouble();
+    }
+
+    public void addRecords(List<BaseRecord> testCaseRecords){
+        records.addAll(testCaseRecords);
     }
 
     public List<BaseRecord> getRecords() {
@@ -0,0 +1,92 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.model.SourceNode;
+import lu.uni.serval.ikora.smells.SmellMetric;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+class SmellyNodes {
+    private final Map<SourceNode, Integer> ids = new IdentityHashMap<>();
+    private final List<SourceNode> nodes = new ArrayList<>();
+    private final Map<SmellMetric.Type, BitSet> types = new EnumMap<>(SmellMetric.Type.class);
+    private final Map<SmellMetric.Type, List<SourceNode>> lists = new ConcurrentHashMap<>();
+
+    void add(SmellMetric.Type type, Collection<SourceNode> smellyNodes){
+        final BitSet bits = types.computeIfAbsent(type, t -> new BitSet());
+        lists.remove(type);
+
+        for(SourceNode node: smellyNodes){
+            if(node != null){
+                bits.set(getId(node));
+            }
+        }
+    }
+
+    boolean contains(SmellMetric.Type type, SourceNode node){
+        final Integer id = ids.get(node);
+
+        if(id == null){
+            return false;
+        }
+
+        final BitSet bits = types.get(type);
+        return bits != null && bits.get(id);
+    }
+
+    List<SourceNode> getAll(){
+        return Collections.unmodifiableList(nodes);
+    }
+
+    List<SourceNode> get(SmellMetric.Type type){
+        return lists.computeIfAbsent(type, this::collect);
+    }
+
+    private List<SourceNode> collect(SmellMetric.Type type){
+        final BitSet bits = types.get(type);
+
+        if(bits == null){
+            return Collections.emptyList();
+        }
+
+        final List<SourceNode> result = new ArrayList<>(bits.cardinality());
+
+        for(int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)){
+            result.add(nodes.get(id));
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    private int getId(SourceNode node){
+        Integer id = ids.get(node);
+
+        if(id == null){
+            id = nodes.size();
+            ids.put(node, id);
+            nodes.add(node);
+        }
+
+        return id;
+    }
+}
@@ -22,13 +22,16 @@ package lu.uni.serval.ikora.evolution.smells.fix;
 
 import lu.uni.serval.ikora.core.analytics.difference.Edit;
 import lu.uni.serval.ikora.core.model.*;
-import lu.uni.serval.ikora.core.utils.Cfg;
+import lu.uni.serval.ikora.evolution.smells.CallGraph;
 import lu.uni.serval.ikora.evolution.smells.History;
+import lu.uni.serval.ikora.evolution.utils.PredicateCache;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static lu.uni.serval.ikora.smells.SmellMetric.Type.*;
 
@@ -36,6 +39,10 @@ public class FixAccumulator {
     private final History history;
     private final EnumMap<SmellMetric.Type, FixDetection> fixDetectionMap;
 
+    private Projects impactedVersion = null;
+    private Map<SourceNode, Map<Edit.Type, List<Edit>>> impacts = Collections.emptyMap();
+    private final Map<SmellMetric.Type, Map<Edit, FixResult>> fixes = new ConcurrentHashMap<>();
+
     public FixAccumulator(SmellConfiguration configuration, History history) {
         this.history = history;
         this.fixDetectionMap = new EnumMap<>(SmellMetric.Type.class);
@@ -62,6 +69,20 @@ public class FixAccumulator {
         this.fixDetectionMap.put(STINKY_SYNCHRONIZATION_SYNDROME, new FixStinkySynchronizationSyndrome(configuration, history));
     }
 
+    public long getPredicateCacheHits() {
+        return getPredicateCaches().mapToLong(PredicateCache::getHits).sum();
+    }
+
+    public long getPredicateCacheMisses() {
+        return getPredicateCaches().mapToLong(PredicateCache::getMisses).sum();
+    }
+
+    private Stream<PredicateCache> getPredicateCaches() {
+        return this.fixDetectionMap.values().stream()
+                .map(FixDetection::getPredicateCache)
+                .flatMap(Optional::stream);
+    }
+
     public Set<FixResult> collect(Projects version, TestCase testCase, SmellMetric.Type type){
         if(!this.history.hasPreviousVersion()){
             return Collections.emptySet();
@@ -77,30 +98,83 @@ public class FixAccumulator {
             return Collections.emptySet();
         }
 
-        return history.getEdits(version).stream()
-                .filter(e -> checkTestCase(e, (TestCase) previousTestCase.get(), testCase))
-                .map(e -> getFix(version, testCase, type, e))
+        final FixDetection fixDetection = this.fixDetectionMap.get(type);
+
+        if(fixDetection == null){
+            return Collections.emptySet();
+        }
+
+        final Map<SourceNode, Map<Edit.Type, List<Edit>>> impactedEdits = getImpacts(version);
+
+        return Stream.of(previousTestCase.get(), testCase)
+                .map(node -> impactedEdits.getOrDefault(node, Collections.emptyMap()))
+                .flatMap(edits -> fixDetection.getEditTypes().stream().map(t -> edits.getOrDefault(t, Collections.emptyList())))
+                .flatMap(List::stream)
+                .map(e -> getFix(type, fixDetection, version, testCase, e))
                 .filter(FixResult::isValid)
                 .collect(Collectors.toSet());
     }
 
-    private static boolean checkTestCase(Edit edit, TestCase previousTestCase, TestCase testCase){
-        return edit.getLeft() != null
-                ? checkTestCase(edit.getLeft(), previousTestCase)
-                : checkTestCase(edit.getRight(), testCase);
+    private FixResult getFix(SmellMetric.Type type, FixDetection fixDetection, Projects version, TestCase testCase, Edit edit){
+        if(fixDetection.isTestCaseDependent()){
+            return fixDetection.getFix(version, testCase, edit);
+        }
+
+        final Map<Edit, FixResult> results = this.fixes.computeIfAbsent(type, k -> new ConcurrentHashMap<>());
+        FixResult result = results.get(edit);
+
+        if(result == null){
+            result = fixDetection.getFix(version, testCase, edit);
+            results.put(edit, result);
+        }
+
+        return result;
     }
 
-    private static boolean checkTestCase(SourceNode node, TestCase testCase){
-        return node == testCase || Cfg.isCalledBy(node, testCase);
+    private synchronized Map<SourceNode, Map<Edit.Type, List<Edit>>> getImpacts(Projects version){
+        if(this.impactedVersion != version){
+            this.fixes.clear();
+            this.impacts = computeImpacts(version);
+            this.impactedVersion = version;
+        }
+
+        return this.impacts;
     }
 
-    private FixResult getFix(Projects version, TestCase testCase, SmellMetric.Type type, Edit edit){
-        final FixDetection fixDetection = this.fixDetectionMap.get(type);
+    private Map<SourceNode, Map<Edit.Type, List<Edit>>> computeImpacts(Projects version){
+        final Map<SourceNode, Map<Edit.Type, List<Edit>>> impactedEdits = new IdentityHashMap<>();
+        final CallGraph callGraph = history.getCallGraph(version);
 
-        if(fixDetection == null){
-            return FixResult.noFix();
+        for(Edit edit: history.getEdits(version)){
+            final SourceNode node = edit.getLeft() != null ? edit.getLeft() : edit.getRight();
+
+            for(SourceNode testCase: getImpactedTestCases(callGraph, node)){
+                impactedEdits.computeIfAbsent(testCase, k -> new EnumMap<>(Edit.Type.class))
+                        .computeIfAbsent(edit.getType(), k -> new ArrayList<>())
+                        .add(edit);
+            }
+        }
+
+        return impactedEdits;
+    }
+
+    private static Set<SourceNode> getImpactedTestCases(CallGraph callGraph, SourceNode node){
+        final Set<SourceNode> testCases = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        if(node == null){
+            return testCases;
+        }
+
+        if(node instanceof TestCase){
+            testCases.add(node);
+        }
+
+        for(KeywordDefinition caller: callGraph.getCallers(node)){
+            if(caller instanceof TestCase){
+                testCases.add(caller);
+            }
         }
 
-        return fixDetection.getFix(version, testCase, edit);
+        return testCases;
     }
 }
@@ -27,9 +27,11 @@ import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
+import java.util.EnumSet;
+
 public class FixArmyOfClones extends FixDetection{
     protected FixArmyOfClones(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.ARMY_OF_CLONES, configuration, history);
+        super(SmellMetric.Type.ARMY_OF_CLONES, configuration, history, EnumSet.of(Edit.Type.REMOVE_USER_KEYWORD));
     }
 
     @Override
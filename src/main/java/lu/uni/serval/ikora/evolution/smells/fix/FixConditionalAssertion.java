@@ -36,7 +36,7 @@ public class FixConditionalAssertion extends FixDetection{
 
     @Override
     public FixResult getFix(Projects version, TestCase testCase, Edit edit) {
-        if(getPreviousSmellyNodes(version).contains(edit.getLeft()) && NodeUtils.isCallType(edit.getRight(), Keyword.Type.ASSERTION, true)){
+        if(wasSmelly(version, edit) && NodeUtils.isCallType(edit.getRight(), Keyword.Type.ASSERTION, true)){
             return getFixResult(version, edit);
         }
 
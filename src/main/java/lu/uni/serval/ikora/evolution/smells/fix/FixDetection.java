@@ -25,21 +25,43 @@ import lu.uni.serval.ikora.core.model.Projects;
 import lu.uni.serval.ikora.core.model.SourceNode;
 import lu.uni.serval.ikora.core.model.TestCase;
 import lu.uni.serval.ikora.evolution.smells.History;
+import lu.uni.serval.ikora.evolution.utils.PredicateCache;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 public abstract class FixDetection {
     protected final SmellMetric.Type type;
     protected final SmellConfiguration configuration;
     protected final History history;
+    private final Set<Edit.Type> editTypes;
 
     protected FixDetection(SmellMetric.Type type, SmellConfiguration configuration, History history) {
+        this(type, configuration, history, EnumSet.allOf(Edit.Type.class));
+    }
+
+    protected FixDetection(SmellMetric.Type type, SmellConfiguration configuration, History history, Set<Edit.Type> editTypes) {
         this.type = type;
         this.configuration = configuration;
         this.history = history;
+        this.editTypes = editTypes;
+    }
+
+    public Set<Edit.Type> getEditTypes() {
+        return editTypes;
+    }
+
+    public boolean isTestCaseDependent() {
+        return false;
+    }
+
+    public Optional<PredicateCache> getPredicateCache() {
+        return Optional.empty();
     }
 
     public abstract FixResult getFix(Projects version, TestCase testCase, Edit edit);
@@ -53,14 +75,14 @@ public abstract class FixDetection {
     }
 
     protected FixResult getFixResult(Projects version, Edit edit){
-        return new FixResult(type, version, history.getSequence(version, edit));
+        return new FixResult(type, version, history.getLineage(version, edit));
     }
 
     protected FixResult getFixResult(Projects previousVersion, SourceNode previousNode){
-        return new FixResult(type, previousVersion, history.getSequence(previousVersion, previousNode));
+        return new FixResult(type, previousVersion, history.getLineage(previousVersion, previousNode));
     }
 
-    protected Set<SourceNode> getPreviousSmellyNodes(Projects version){
+    protected List<SourceNode> getPreviousSmellyNodes(Projects version){
         return history.getPreviousSmellyNodes(version, type);
     }
 
@@ -69,10 +91,6 @@ public abstract class FixDetection {
     }
 
     protected boolean wasSmelly(Projects version, SourceNode previousNode){
-        if(previousNode == null){
-            return false;
-        }
-
-        return getPreviousSmellyNodes(version).contains(previousNode);
+        return history.wasSmelly(version, type, previousNode);
     }
 }
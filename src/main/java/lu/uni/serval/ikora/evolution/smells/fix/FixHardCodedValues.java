@@ -27,9 +27,11 @@ import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
+import java.util.EnumSet;
+
 public class FixHardCodedValues extends FixDetection{
     public FixHardCodedValues(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.HARD_CODED_VALUES, configuration, history);
+        super(SmellMetric.Type.HARD_CODED_VALUES, configuration, history, EnumSet.of(Edit.Type.CHANGE_VALUE_TYPE));
     }
 
     @Override
@@ -27,9 +27,11 @@ import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
+import java.util.EnumSet;
+
 public class FixHardcodedEnvironment extends FixDetection{
     public FixHardcodedEnvironment(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.HARDCODED_ENVIRONMENT_CONFIGURATIONS, configuration, history);
+        super(SmellMetric.Type.HARDCODED_ENVIRONMENT_CONFIGURATIONS, configuration, history, EnumSet.of(Edit.Type.CHANGE_VALUE_TYPE));
     }
 
     @Override
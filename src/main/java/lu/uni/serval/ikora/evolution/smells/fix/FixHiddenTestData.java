@@ -29,11 +29,12 @@ import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
+import java.util.EnumSet;
 import java.util.Optional;
 
 public class FixHiddenTestData extends FixDetection{
     protected FixHiddenTestData(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.HIDING_TEST_DATA, configuration, history);
+        super(SmellMetric.Type.HIDING_TEST_DATA, configuration, history, EnumSet.of(Edit.Type.REMOVE_STEP));
     }
 
     @Override
@@ -50,7 +51,7 @@ public class FixHiddenTestData extends FixDetection{
         if(edit.getLeft() instanceof Assignment){
             final Optional<KeywordCall> keywordCall = ((Assignment) edit.getLeft()).getKeywordCall();
 
-            if(keywordCall.isPresent() && getPreviousSmellyNodes(version).contains(keywordCall.get())){
+            if(keywordCall.isPresent() && wasSmelly(version, keywordCall.get())){
                 return getFixResult(version, edit);
             }
         }
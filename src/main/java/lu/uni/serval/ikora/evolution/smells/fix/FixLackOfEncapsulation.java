@@ -27,9 +27,11 @@ import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
+import java.util.EnumSet;
+
 public class FixLackOfEncapsulation extends FixDetection{
     protected FixLackOfEncapsulation(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.LACK_OF_ENCAPSULATION, configuration, history);
+        super(SmellMetric.Type.LACK_OF_ENCAPSULATION, configuration, history, EnumSet.of(Edit.Type.REMOVE_STEP, Edit.Type.CHANGE_STEP));
     }
 
     @Override
@@ -20,19 +20,24 @@ package lu.uni.serval.ikora.evolution.smells.fix;
  * #L%
  */
 
-import lu.uni.serval.ikora.core.analytics.KeywordStatistics;
 import lu.uni.serval.ikora.core.analytics.difference.Edit;
+import lu.uni.serval.ikora.core.builder.resolver.ValueResolver;
 import lu.uni.serval.ikora.core.model.*;
-import lu.uni.serval.ikora.core.utils.Cfg;
+import lu.uni.serval.ikora.evolution.smells.CallGraph;
 import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
-import java.util.Optional;
+import java.util.*;
 
 public class FixLongTestSteps extends FixDetection{
+    private Projects indexedVersion = null;
+    private final Map<String, List<Integer>> positions = new HashMap<>();
+    private final List<Token> names = new ArrayList<>();
+    private final Map<Step, Optional<KeywordDefinition>> relevantSteps = new IdentityHashMap<>();
+
     protected FixLongTestSteps(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.LONG_TEST_STEPS, configuration, history);
+        super(SmellMetric.Type.LONG_TEST_STEPS, configuration, history, EnumSet.of(Edit.Type.REMOVE_STEP));
     }
 
     @Override
@@ -43,7 +48,11 @@ public class FixLongTestSteps extends FixDetection{
             return FixResult.noFix();
         }
 
-        if(KeywordStatistics.getSequenceSize(previousStep) > configuration.getMaximumStepSize()){
+        final int sequenceSize = history.findPreviousVersion(version)
+                .map(previousVersion -> history.getStatistics(previousVersion).getSequenceSize(previousStep))
+                .orElse(0);
+
+        if(sequenceSize > configuration.getMaximumStepSize()){
             return getFixResult(version, edit);
         }
 
@@ -62,15 +71,94 @@ public class FixLongTestSteps extends FixDetection{
         return getRelevantStep((Step) edit.getLeft(), version);
     }
 
-    private KeywordDefinition getRelevantStep(Step step, Projects version){
+    private synchronized KeywordDefinition getRelevantStep(Step step, Projects version){
+        if(indexedVersion != version){
+            index(version);
+        }
+
+        Optional<KeywordDefinition> relevantStep = relevantSteps.get(step);
+
+        if(relevantStep == null){
+            relevantStep = findRelevantStep(step, version);
+            relevantSteps.put(step, relevantStep);
+        }
+
+        return relevantStep.orElse(null);
+    }
+
+    private Optional<KeywordDefinition> findRelevantStep(Step step, Projects version){
+        if(CallGraph.getDefinition(step) == null){
+            return Optional.empty();
+        }
+
+        final List<KeywordDefinition> callers = history.getCallGraph(version).getCallers(step);
+
+        int first = names.size();
+
+        for(KeywordDefinition caller: callers){
+            first = Math.min(first, getPosition(caller, first));
+        }
+
+        if(first == names.size()){
+            return Optional.empty();
+        }
+
+        final Token name = names.get(first);
+        return callers.stream().filter(caller -> caller.matches(name)).findFirst();
+    }
+
+    private int getPosition(KeywordDefinition caller, int limit){
+        final Token name = caller.getDefinitionToken();
+
+        if(name == null){
+            return limit;
+        }
+
+        if(!ValueResolver.hasVariable(name)){
+            for(int position: positions.getOrDefault(getKey(name.getText().trim()), Collections.emptyList())){
+                if(position < limit && caller.matches(names.get(position))){
+                    return position;
+                }
+            }
+
+            return limit;
+        }
+
+        for(int position = 0; position < limit; ++position){
+            if(caller.matches(names.get(position))){
+                return position;
+            }
+        }
+
+        return limit;
+    }
+
+    private void index(Projects version){
+        positions.clear();
+        names.clear();
+        relevantSteps.clear();
+
         for(SourceNode node: getPreviousSmellyNodes(version)){
-            final Optional<KeywordDefinition> parent = Cfg.getCallerByName(step, node.getDefinitionToken());
+            final Token name = node.getDefinitionToken();
+
+            if(name != null){
+                positions.computeIfAbsent(getKey(name.getText()), k -> new ArrayList<>()).add(names.size());
+                names.add(name);
+            }
+        }
+
+        indexedVersion = version;
+    }
+
+    private static String getKey(String name){
+        final char[] key = name.toCharArray();
 
-            if(parent.isPresent() ){
-                return parent.get();
+        for(int i = 0; i < key.length; ++i){
+            if(key[i] >= 'A' && key[i] <= 'Z'){
+                key[i] = (char) (key[i] + ('a' - 'A'));
             }
         }
 
-        return null;
+        return new String(key);
     }
 }
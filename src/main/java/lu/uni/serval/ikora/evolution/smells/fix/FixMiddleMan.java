@@ -22,16 +22,17 @@ package lu.uni.serval.ikora.evolution.smells.fix;
 
 import lu.uni.serval.ikora.core.analytics.difference.Edit;
 import lu.uni.serval.ikora.core.model.*;
-import lu.uni.serval.ikora.core.utils.Ast;
+import lu.uni.serval.ikora.evolution.smells.CallGraph;
 import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
+import java.util.EnumSet;
 import java.util.Optional;
 
 public class FixMiddleMan extends FixDetection{
     protected FixMiddleMan(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.MIDDLE_MAN, configuration, history);
+        super(SmellMetric.Type.MIDDLE_MAN, configuration, history, EnumSet.of(Edit.Type.CHANGE_STEP));
     }
 
     @Override
@@ -42,9 +43,9 @@ public class FixMiddleMan extends FixDetection{
         }
 
         if(edit.getType() == Edit.Type.CHANGE_STEP){
-            final Optional<UserKeyword> parent = Ast.getParentByType(edit.getLeft(), UserKeyword.class);
+            final KeywordDefinition parent = CallGraph.getDefinition(edit.getLeft());
 
-            if(parent.isEmpty() || !wasSmelly(version, parent.get())){
+            if(!(parent instanceof UserKeyword) || !wasSmelly(version, parent)){
                 return FixResult.noFix();
             }
 
@@ -26,11 +26,17 @@ import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
+import java.util.EnumSet;
 import java.util.Optional;
 
 public class FixMissingAssertion extends FixDetection{
     protected FixMissingAssertion(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.MISSING_ASSERTION, configuration, history);
+        super(SmellMetric.Type.MISSING_ASSERTION, configuration, history, EnumSet.of(Edit.Type.ADD_STEP, Edit.Type.ADD_USER_KEYWORD));
+    }
+
+    @Override
+    public boolean isTestCaseDependent() {
+        return true;
     }
 
     @Override
@@ -27,9 +27,11 @@ import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
+import java.util.EnumSet;
+
 public class FixMissingDocumentation extends FixDetection{
     protected FixMissingDocumentation(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.MISSING_DOCUMENTATION, configuration, history);
+        super(SmellMetric.Type.MISSING_DOCUMENTATION, configuration, history, EnumSet.of(Edit.Type.ADD_DOCUMENTATION));
     }
 
     @Override
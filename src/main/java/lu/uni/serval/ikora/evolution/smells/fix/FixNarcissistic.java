@@ -24,13 +24,24 @@ import lu.uni.serval.ikora.core.analytics.difference.Edit;
 import lu.uni.serval.ikora.core.model.Projects;
 import lu.uni.serval.ikora.core.model.TestCase;
 import lu.uni.serval.ikora.evolution.smells.History;
+import lu.uni.serval.ikora.evolution.utils.PredicateCache;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 import lu.uni.serval.ikora.smells.utils.NLPUtils;
 
+import java.util.EnumSet;
+import java.util.Optional;
+
 public class FixNarcissistic extends FixDetection{
+    private final PredicateCache personalPronouns = new PredicateCache(10000);
+
     protected FixNarcissistic(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.NARCISSISTIC, configuration, history);
+        super(SmellMetric.Type.NARCISSISTIC, configuration, history, EnumSet.of(Edit.Type.CHANGE_STEP));
+    }
+
+    @Override
+    public Optional<PredicateCache> getPredicateCache() {
+        return Optional.of(personalPronouns);
     }
 
     @Override
@@ -39,10 +50,18 @@ public class FixNarcissistic extends FixDetection{
             return FixResult.noFix();
         }
 
-        if(wasSmelly(version, edit) && !NLPUtils.isUsingPersonalPronoun(edit.getRight().getName())){
+        if(wasSmelly(version, edit) && !isUsingPersonalPronoun(edit.getRight().getName())){
             return getFixResult(version, edit);
         }
 
         return FixResult.noFix();
     }
+
+    private boolean isUsingPersonalPronoun(String name){
+        return personalPronouns.test(name, n -> {
+            synchronized (NLPUtils.class){
+                return NLPUtils.isUsingPersonalPronoun(n);
+            }
+        });
+    }
 }
@@ -27,10 +27,12 @@ import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
+import java.util.EnumSet;
+
 
 public class FixNoisyLogging extends FixDetection{
     protected FixNoisyLogging(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.NOISY_LOGGING, configuration, history);
+        super(SmellMetric.Type.NOISY_LOGGING, configuration, history, EnumSet.of(Edit.Type.REMOVE_STEP));
     }
 
     @Override
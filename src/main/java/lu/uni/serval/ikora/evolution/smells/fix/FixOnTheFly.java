@@ -28,9 +28,11 @@ import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
+import java.util.EnumSet;
+
 public class FixOnTheFly extends FixDetection{
     protected FixOnTheFly(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.ON_THE_FLY, configuration, history);
+        super(SmellMetric.Type.ON_THE_FLY, configuration, history, EnumSet.of(Edit.Type.CHANGE_VALUE_TYPE));
     }
 
     @Override
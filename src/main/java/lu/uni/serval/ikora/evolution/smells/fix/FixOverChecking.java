@@ -27,10 +27,12 @@ import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
+import java.util.EnumSet;
+
 
 public class FixOverChecking extends FixDetection {
     protected FixOverChecking(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.OVER_CHECKING, configuration, history);
+        super(SmellMetric.Type.OVER_CHECKING, configuration, history, EnumSet.of(Edit.Type.REMOVE_STEP));
     }
 
     @Override
@@ -20,29 +20,24 @@ package lu.uni.serval.ikora.evolution.smells.fix;
  * #L%
  */
 
-import lu.uni.serval.ikora.core.model.Project;
 import lu.uni.serval.ikora.core.model.Projects;
-import lu.uni.serval.ikora.core.model.SourceNode;
+import lu.uni.serval.ikora.evolution.smells.Lineage;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 public class FixResult {
     private boolean isValid;
     private final SmellMetric.Type type;
     private final Projects version;
-    private final List<SourceNode> history;
+    private final Lineage lineage;
 
-    public FixResult(SmellMetric.Type type, Projects version, List<SourceNode>history){
+    public FixResult(SmellMetric.Type type, Projects version, Lineage lineage){
         this.isValid = true;
         this.type = type;
         this.version = version;
-        this.history = history;
+        this.lineage = lineage;
     }
 
     public static FixResult noFix(){
@@ -61,7 +56,7 @@ public class FixResult {
     }
 
     public int getNumberVersions() {
-        return history.size();
+        return lineage.getSize();
     }
 
     public Duration getDuration() {
@@ -76,21 +71,12 @@ public class FixResult {
     }
 
     private Instant getIntroductionDate(){
-        List<Instant> dates = history.stream()
-                .map(SourceNode::getProject)
-                .filter(Objects::nonNull)
-                .map(Project::getDate)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-        if(dates.isEmpty()){
-            return version.getDate();
-        }
+        final Instant introductionDate = lineage.getIntroductionDate();
 
-        if(dates.size() == 1){
-            return dates.iterator().next();
+        if(introductionDate == null){
+            return version.getDate();
         }
 
-        return Collections.min(dates);
+        return introductionDate;
     }
 }
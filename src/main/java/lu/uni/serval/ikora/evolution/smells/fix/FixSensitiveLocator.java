@@ -24,42 +24,74 @@ import lu.uni.serval.ikora.core.analytics.difference.Edit;
 import lu.uni.serval.ikora.core.builder.resolver.ValueResolver;
 import lu.uni.serval.ikora.core.model.*;
 import lu.uni.serval.ikora.evolution.smells.History;
+import lu.uni.serval.ikora.evolution.utils.PredicateCache;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 import lu.uni.serval.ikora.smells.utils.LocatorUtils;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
 
 public class FixSensitiveLocator extends FixDetection{
+    private final PredicateCache complexLocators = new PredicateCache(10000);
+    private Projects indexedVersion = null;
+    private Set<Node> valueNodes = Collections.emptySet();
+
     protected FixSensitiveLocator(SmellConfiguration configuration, History history) {
         super(SmellMetric.Type.SENSITIVE_LOCATOR, configuration, history);
     }
 
+    @Override
+    public Optional<PredicateCache> getPredicateCache() {
+        return Optional.of(complexLocators);
+    }
+
     @Override
     public FixResult getFix(Projects version, TestCase testCase, Edit edit) {
-        if(isContaining(getPreviousSmellyNodes(version), edit)
+        if(isContaining(version, edit)
                 && Literal.class.isAssignableFrom(edit.getRight().getClass())
-                && !LocatorUtils.isComplex(edit.getRight().getName(), configuration.getMaximumLocatorSize())){
+                && !isComplex(edit.getRight().getName())){
             return getFixResult(version, edit);
         }
 
         return FixResult.noFix();
     }
 
-    private boolean isContaining(Set<SourceNode> nodes, Edit edit){
+    private boolean isComplex(String locator){
+        return complexLocators.test(locator, l -> LocatorUtils.isComplex(l, configuration.getMaximumLocatorSize()));
+    }
+
+    private boolean isContaining(Projects version, Edit edit){
         if(edit.getLeft() == null){
             return false;
         }
 
-        return nodes.contains(edit.getLeft()) ||
-        nodes.stream().filter(Argument.class::isInstance)
-                .map(Argument.class::cast)
-                .flatMap(n -> ValueResolver.getValueNodes(n).stream())
-                .filter(Objects::nonNull)
-                .flatMap(n -> n instanceof VariableAssignment ? ((VariableAssignment)n).getValues().stream() : Stream.of(n))
-                .filter(Objects::nonNull)
-                .anyMatch(n -> n == edit.getLeft() || n == edit.getLeft().getAstParent(false));
+        final Set<Node> previousValueNodes = getValueNodes(version);
+
+        return wasSmelly(version, edit)
+                || previousValueNodes.contains(edit.getLeft())
+                || previousValueNodes.contains(edit.getLeft().getAstParent(false));
+    }
+
+    private synchronized Set<Node> getValueNodes(Projects version){
+        if(indexedVersion != version){
+            valueNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+            getPreviousSmellyNodes(version).stream().filter(Argument.class::isInstance)
+                    .map(Argument.class::cast)
+                    .flatMap(n -> ValueResolver.getValueNodes(n).stream())
+                    .filter(Objects::nonNull)
+                    .flatMap(n -> n instanceof VariableAssignment ? ((VariableAssignment)n).getValues().stream() : Stream.of(n))
+                    .filter(Objects::nonNull)
+                    .forEach(valueNodes::add);
+
+            indexedVersion = version;
+        }
+
+        return valueNodes;
     }
 }
@@ -27,10 +27,12 @@ import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellConfiguration;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
+import java.util.EnumSet;
+
 
 public class FixSneakyChecking extends FixDetection{
     protected FixSneakyChecking(SmellConfiguration configuration, History history) {
-        super(SmellMetric.Type.SNEAKY_CHECKING, configuration, history);
+        super(SmellMetric.Type.SNEAKY_CHECKING, configuration, history, EnumSet.of(Edit.Type.REMOVE_NODE, Edit.Type.REMOVE_USER_KEYWORD));
     }
 
     @Override
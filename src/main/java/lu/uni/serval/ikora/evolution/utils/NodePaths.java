@@ -0,0 +1,198 @@
+package lu.uni.serval.ikora.evolution.utils;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.model.Project;
+import lu.uni.serval.ikora.core.model.Projects;
+import lu.uni.serval.ikora.core.model.SourceFile;
+import lu.uni.serval.ikora.core.model.SourceNode;
+
+import java.util.*;
+
+public class NodePaths {
+    private static final char ROOT_SEPARATOR = '@';
+    private static final String CHILD_SEPARATOR = "/";
+    private static final String ANY_PROJECT = "*";
+
+    private NodePaths() {}
+
+    public static Map<SourceNode, String> index(Projects version){
+        final Map<SourceNode, String> paths = new IdentityHashMap<>();
+
+        for(Project project: sort(version)){
+            for(SourceFile sourceFile: sort(project)){
+                index(sourceFile, getRoot(project.getName(), sourceFile), paths);
+            }
+        }
+
+        return paths;
+    }
+
+    public static Map<String, SourceNode> resolve(Projects version){
+        final Map<String, SourceNode> nodes = new HashMap<>();
+
+        for(Map.Entry<SourceNode, String> entry: index(version).entrySet()){
+            nodes.put(entry.getValue(), entry.getKey());
+        }
+
+        return nodes;
+    }
+
+    public static Optional<String> encode(SourceNode node){
+        return encode(node, false);
+    }
+
+    public static Optional<String> encode(SourceNode node, boolean ignoreProjectName){
+        final Deque<Integer> indices = new ArrayDeque<>();
+        SourceNode current = node;
+
+        while (!(current instanceof SourceFile)){
+            if(current == null){
+                return Optional.empty();
+            }
+
+            final SourceNode parent = current.getAstParent(false);
+
+            if(parent == null){
+                return Optional.empty();
+            }
+
+            final int index = indexOf(parent.getAstChildren(), current);
+
+            if(index < 0){
+                return Optional.empty();
+            }
+
+            indices.push(index);
+            current = parent;
+        }
+
+        final SourceFile sourceFile = (SourceFile) current;
+
+        if(sourceFile.getProject() == null){
+            return Optional.empty();
+        }
+
+        final String projectName = ignoreProjectName ? ANY_PROJECT : sourceFile.getProject().getName();
+        final StringJoiner path = new StringJoiner(CHILD_SEPARATOR, getRoot(projectName, sourceFile), "");
+        indices.forEach(i -> path.add(String.valueOf(i)));
+
+        return Optional.of(path.toString());
+    }
+
+    public static String getRoot(String path){
+        return path.substring(0, path.lastIndexOf(ROOT_SEPARATOR) + 1);
+    }
+
+    public static Optional<SourceNode> decode(Projects version, String path){
+        final int separator = path.lastIndexOf(ROOT_SEPARATOR);
+
+        if(separator < 0){
+            return Optional.empty();
+        }
+
+        final String[] root = path.substring(0, separator).split("\\|", 2);
+
+        if(root.length != 2){
+            return Optional.empty();
+        }
+
+        final Optional<SourceFile> sourceFile = findProjects(version, root[0]).stream()
+                .flatMap(p -> p.getSourceFiles().stream())
+                .filter(f -> f.getName().equals(root[1]))
+                .findFirst();
+
+        if(sourceFile.isEmpty()){
+            return Optional.empty();
+        }
+
+        SourceNode node = sourceFile.get();
+        final String indices = path.substring(separator + 1);
+
+        if(indices.isEmpty()){
+            return Optional.of(node);
+        }
+
+        for(String index: indices.split(CHILD_SEPARATOR)){
+            final List<SourceNode> children = node.getAstChildren();
+            final int position = Integer.parseInt(index);
+
+            if(position >= children.size() || children.get(position) == null){
+                return Optional.empty();
+            }
+
+            node = children.get(position);
+        }
+
+        return Optional.of(node);
+    }
+
+    private static void index(SourceNode node, String path, Map<SourceNode, String> paths){
+        paths.putIfAbsent(node, path);
+
+        final List<SourceNode> children = node.getAstChildren();
+        final String prefix = node instanceof SourceFile ? path : path + CHILD_SEPARATOR;
+
+        for(int i = 0; i < children.size(); ++i){
+            final SourceNode child = children.get(i);
+
+            if(child != null){
+                index(child, prefix + i, paths);
+            }
+        }
+    }
+
+    private static String getRoot(String projectName, SourceFile sourceFile){
+        return String.format("%s|%s%c", projectName, sourceFile.getName(), ROOT_SEPARATOR);
+    }
+
+    private static List<Project> findProjects(Projects version, String projectName){
+        if(projectName.equals(ANY_PROJECT)){
+            return sort(version);
+        }
+
+        return version.findProjectByName(projectName).map(Collections::singletonList).orElse(Collections.emptyList());
+    }
+
+    private static int indexOf(List<SourceNode> nodes, SourceNode node){
+        for(int i = 0; i < nodes.size(); ++i){
+            if(nodes.get(i) == node){
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static List<Project> sort(Projects version){
+        final List<Project> projects = new ArrayList<>(version.asSet());
+        projects.sort(Comparator.comparing(Project::getName));
+
+        return projects;
+    }
+
+    private static List<SourceFile> sort(Project project){
+        final List<SourceFile> sourceFiles = new ArrayList<>(project.getSourceFiles());
+        sourceFiles.sort(Comparator.comparing(SourceFile::getName));
+
+        return sourceFiles;
+    }
+}
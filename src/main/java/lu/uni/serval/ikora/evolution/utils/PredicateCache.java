@@ -0,0 +1,74 @@
+package lu.uni.serval.ikora.evolution.utils;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+public class PredicateCache {
+    private final Map<String, Boolean> values;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    public PredicateCache(int capacity){
+        this.values = new LinkedHashMap<>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+
+        this.hits = new AtomicLong(0);
+        this.misses = new AtomicLong(0);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public boolean test(String value, Predicate<String> predicate){
+        Boolean result;
+
+        synchronized (values){
+            result = values.get(value);
+        }
+
+        if(result != null){
+            hits.incrementAndGet();
+            return result;
+        }
+
+        misses.incrementAndGet();
+        result = predicate.test(value);
+
+        synchronized (values){
+            values.put(value, result);
+        }
+
+        return result;
+    }
+}
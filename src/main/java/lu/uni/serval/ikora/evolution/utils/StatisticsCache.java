@@ -0,0 +1,62 @@
+package lu.uni.serval.ikora.evolution.utils;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.analytics.KeywordStatistics;
+import lu.uni.serval.ikora.core.model.SourceNode;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+public class StatisticsCache {
+    private final Map<SourceNode, Integer> sizes = new ConcurrentHashMap<>();
+    private final Map<SourceNode, Integer> sequenceSizes = new ConcurrentHashMap<>();
+    private final Map<SourceNode, Integer> levels = new ConcurrentHashMap<>();
+    private final Map<SourceNode, Integer> statementCounts = new ConcurrentHashMap<>();
+
+    public int getSize(SourceNode node){
+        return get(sizes, node, n -> KeywordStatistics.getSize(n).getTotalSize());
+    }
+
+    public int getSequenceSize(SourceNode node){
+        return get(sequenceSizes, node, KeywordStatistics::getSequenceSize);
+    }
+
+    public int getLevel(SourceNode node){
+        return get(levels, node, KeywordStatistics::getLevel);
+    }
+
+    public int getStatementCount(SourceNode node){
+        return get(statementCounts, node, KeywordStatistics::getStatementCount);
+    }
+
+    private static int get(Map<SourceNode, Integer> values, SourceNode node, ToIntFunction<SourceNode> statistic){
+        Integer value = values.get(node);
+
+        if(value == null){
+            value = statistic.applyAsInt(node);
+            values.put(node, value);
+        }
+
+        return value;
+    }
+}
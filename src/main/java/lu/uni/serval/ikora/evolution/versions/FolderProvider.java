@@ -29,6 +29,7 @@ import lu.uni.serval.ikora.core.model.Projects;
 import lu.uni.serval.ikora.core.utils.FileUtils;
 
 import java.io.File;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -57,9 +58,14 @@ public class FolderProvider implements VersionProvider{
 
     @Override
     public Iterator<Projects> iterator() {
+        return iterator(null, null);
+    }
+
+    @Override
+    public Iterator<Projects> iterator(String versionId, Instant date) {
         return new Iterator<Projects>() {
             private final List<File> subFolders = getSubFolders();
-            private final Iterator<File> subFoldersIterator = subFolders.iterator();
+            private final Iterator<File> subFoldersIterator = subFolders.subList(indexOf(versionId), subFolders.size()).iterator();
 
             @Override
             public boolean hasNext() {
@@ -77,6 +83,23 @@ public class FolderProvider implements VersionProvider{
                 return version;
             }
 
+            private int indexOf(String versionId){
+                if(versionId == null){
+                    return 0;
+                }
+
+                for(int i = 0; i < subFolders.size(); ++i){
+                    if(subFolders.get(i).getName().equals(versionId)){
+                        return i;
+                    }
+                }
+
+                throw new IllegalArgumentException(String.format("Version '%s' not found in '%s'",
+                        versionId,
+                        rootFolder.getAbsolutePath()
+                ));
+            }
+
             List<File> getSubFolders(){
                 return FileUtils.getSubFolders(rootFolder).stream()
                         .sorted(this::sortSubFolder)
@@ -24,7 +24,9 @@ import lu.uni.serval.commons.git.utils.Frequency;
 import lu.uni.serval.commons.git.utils.GitCommit;
 import lu.uni.serval.commons.git.utils.GitUtils;
 import lu.uni.serval.commons.git.utils.LocalRepository;
+import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.Level;
+import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -33,27 +35,50 @@ import lu.uni.serval.ikora.core.BuildConfiguration;
 import lu.uni.serval.ikora.core.builder.BuildResult;
 import lu.uni.serval.ikora.core.builder.Builder;
 import lu.uni.serval.ikora.core.model.Projects;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.RefSpec;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 public class GitProvider implements VersionProvider {
     private static final Logger logger = LogManager.getLogger(GitProvider.class);
+    private static final Object BUILD_LOCK = new Object();
 
     private File rootFolder;
 
     private final Frequency frequency;
     private final Map<LocalRepository, List<GitCommit>> repositories;
     private final Map<LocalRepository, Set<String>> projectFolders;
+    private final ExecutorService buildExecutor;
+    private final List<Map<LocalRepository, Worktree>> worktrees;
+    private ExecutorService lookAheadExecutor;
+    private SnapshotCache snapshotCache;
 
     public GitProvider(Frequency frequency) {
+        this(frequency, 1);
+    }
+
+    public GitProvider(Frequency frequency, int buildThreads) {
         this.frequency = frequency;
         this.repositories = new HashMap<>();
         this.projectFolders = new HashMap<>();
         this.rootFolder = null;
+        this.buildExecutor = buildThreads > 1 ? Executors.newFixedThreadPool(buildThreads) : null;
+        this.worktrees = new ArrayList<>();
+        this.lookAheadExecutor = null;
+        this.snapshotCache = null;
     }
 
     public void addRepository(LocalRepository localRepository, List<GitCommit> commits, Set<String> projectFolders) {
@@ -61,7 +86,61 @@ public class GitProvider implements VersionProvider {
         this.projectFolders.put(localRepository, projectFolders);
     }
 
+    public void setSnapshotCache(SnapshotCache snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
+    public void initializeWorktrees(int size) throws GitAPIException, IOException {
+        if(size <= 1 || !this.worktrees.isEmpty()){
+            return;
+        }
+
+        for(int slot = 1; slot < size; ++slot){
+            final Map<LocalRepository, Worktree> worktree = new HashMap<>(repositories.size());
+
+            for(LocalRepository localRepository: repositories.keySet()){
+                worktree.put(localRepository, createWorktree(localRepository, slot));
+            }
+
+            this.worktrees.add(worktree);
+        }
+
+        this.lookAheadExecutor = Executors.newFixedThreadPool(size);
+    }
+
+    private Worktree createWorktree(LocalRepository localRepository, int slot) throws GitAPIException, IOException {
+        final File worktreeFolder = new File(getRootFolder(), String.format("worktree-%d", slot));
+        final File location = new File(worktreeFolder, localRepository.getLocation().getName());
+
+        final Git git = openWorktree(localRepository, slot, location);
+        git.fetch()
+                .setRemote(localRepository.getLocation().toURI().toString())
+                .setRefSpecs(new RefSpec("+refs/*:refs/worktree/*"))
+                .call();
+
+        return new Worktree(git, location);
+    }
+
+    private static Git openWorktree(LocalRepository localRepository, int slot, File location) throws GitAPIException, IOException {
+        if(new File(location, Constants.DOT_GIT).isDirectory()){
+            try {
+                final Git git = Git.open(location);
+                logger.log(Level.INFO, "Reuse worktree {} for repository {}", slot, localRepository.getRemoteUrl());
+
+                return git;
+            } catch (IOException e) {
+                logger.log(Level.WARN, "Failed to reuse worktree {} for repository {}: {}", slot, localRepository.getRemoteUrl(), e.getMessage());
+            }
+        }
+
+        if(location.exists()){
+            FileUtils.deleteDirectory(location);
+        }
+
+        logger.log(Level.INFO, "Create worktree {} for repository {}", slot, localRepository.getRemoteUrl());
 
+        return Git.init().setDirectory(location).call();
+    }
 
     @Override
     public File getRootFolder() throws IOException {
@@ -78,6 +157,20 @@ public class GitProvider implements VersionProvider {
 
     @Override
     public void close() throws IOException {
+        if(lookAheadExecutor != null){
+            lookAheadExecutor.shutdownNow();
+        }
+
+        if(buildExecutor != null){
+            buildExecutor.shutdownNow();
+        }
+
+        for(Map<LocalRepository, Worktree> worktree: worktrees){
+            for(Worktree current: worktree.values()){
+                current.git.close();
+            }
+        }
+
         for(LocalRepository localRepository: repositories.keySet()){
             GitUtils.close(localRepository.getGit(), true);
         }
@@ -85,47 +178,250 @@ public class GitProvider implements VersionProvider {
 
     @Override
     public Iterator<Projects> iterator() {
-        return new ProjectIterator(projectFolders, frequency, repositories);
+        return new ProjectIterator(projectFolders, frequency, repositories, buildExecutor, worktrees, lookAheadExecutor, snapshotCache);
+    }
+
+    @Override
+    public Iterator<Projects> iterator(String versionId, Instant date) {
+        final ProjectIterator iterator = new ProjectIterator(projectFolders, frequency, repositories, buildExecutor, worktrees, lookAheadExecutor, snapshotCache);
+        iterator.seek(date);
+
+        return iterator;
+    }
+
+    private static class Worktree {
+        private final Git git;
+        private final File location;
+        private String commitId;
+
+        private Worktree(Git git, File location) {
+            this.git = git;
+            this.location = location;
+            this.commitId = null;
+        }
     }
 
     public static class ProjectIterator implements Iterator<Projects> {
         private final Map<LocalRepository, Set<String>> projectFolders;
         private final Frequency frequency;
         private final Map<LocalRepository, List<GitCommit>> repositories;
-        private final Iterator<Instant> dateIterator;
+        private final List<Instant> dates;
+        private final ExecutorService buildExecutor;
+        private final List<Map<LocalRepository, Worktree>> worktrees;
+        private final ExecutorService lookAheadExecutor;
+        private final Deque<Future<Optional<Projects>>> pending;
+        private final SnapshotCache snapshotCache;
+        private int dateIndex;
 
         public ProjectIterator(Map<LocalRepository, Set<String>> projectFolders, Frequency frequency, Map<LocalRepository, List<GitCommit>> repositories) {
+            this(projectFolders, frequency, repositories, null);
+        }
+
+        public ProjectIterator(Map<LocalRepository, Set<String>> projectFolders, Frequency frequency, Map<LocalRepository, List<GitCommit>> repositories, ExecutorService buildExecutor) {
+            this(projectFolders, frequency, repositories, buildExecutor, Collections.emptyList(), null, null);
+        }
+
+        private ProjectIterator(Map<LocalRepository, Set<String>> projectFolders,
+                                Frequency frequency,
+                                Map<LocalRepository, List<GitCommit>> repositories,
+                                ExecutorService buildExecutor,
+                                List<Map<LocalRepository, Worktree>> worktrees,
+                                ExecutorService lookAheadExecutor,
+                                SnapshotCache snapshotCache) {
             this.projectFolders = projectFolders;
             this.frequency = frequency;
             this.repositories = repositories;
-            this.dateIterator = getDates().iterator();
+            this.buildExecutor = buildExecutor;
+            this.worktrees = new ArrayList<>(worktrees.size() + 1);
+            this.lookAheadExecutor = lookAheadExecutor;
+            this.pending = new ArrayDeque<>();
+            this.snapshotCache = snapshotCache;
+            this.dates = getDates();
+            this.dateIndex = 0;
+
+            final Map<LocalRepository, Worktree> main = new HashMap<>(repositories.size());
+            for(LocalRepository localRepository: repositories.keySet()){
+                main.put(localRepository, new Worktree(localRepository.getGit(), localRepository.getLocation()));
+            }
+
+            this.worktrees.add(main);
+            this.worktrees.addAll(worktrees);
         }
 
         @Override
         public boolean hasNext() {
-            return dateIterator.hasNext();
+            return !pending.isEmpty() || dateIndex < dates.size();
         }
 
         @Override
         public Projects next() {
-            Projects projects = new Projects();
+            final Optional<Projects> projects;
+
+            if(lookAheadExecutor == null){
+                if(dateIndex >= dates.size()){
+                    throw new NoSuchElementException();
+                }
+
+                projects = load(dates.get(dateIndex++), worktrees.get(0));
+            }
+            else{
+                lookAhead();
+
+                if(pending.isEmpty()){
+                    throw new NoSuchElementException();
+                }
+
+                projects = await(pending.poll());
+                lookAhead();
+            }
+
+            return projects.orElseGet(this::next);
+        }
 
+        private void seek(Instant date){
+            final int index = date != null ? dates.indexOf(date) : -1;
+
+            if(index < 0){
+                throw new IllegalArgumentException(String.format("No version found for date %s", date));
+            }
+
+            dateIndex = index;
+        }
+
+        private void lookAhead(){
+            while (pending.size() < worktrees.size() && dateIndex < dates.size()){
+                final Map<LocalRepository, Worktree> worktree = worktrees.get(dateIndex % worktrees.size());
+                final Instant date = dates.get(dateIndex++);
+
+                pending.add(lookAheadExecutor.submit(() -> load(date, worktree)));
+            }
+        }
+
+        private static Optional<Projects> await(Future<Optional<Projects>> future){
             try {
-                final Instant date = dateIterator.next();
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next version", e);
+            } catch (ExecutionException e) {
+                if(e.getCause() instanceof RuntimeException){
+                    throw (RuntimeException) e.getCause();
+                }
+
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        private Optional<Projects> load(Instant date, Map<LocalRepository, Worktree> worktree){
+            final Projects projects = new Projects();
 
-                for(Map.Entry<LocalRepository, GitCommit> entry: getLastCommits(date).entrySet()){
-                    GitUtils.checkout(entry.getKey().getGit(), entry.getValue().getId());
-                    final BuildResult build = Builder.build(getProjectFolders(entry.getKey()), new BuildConfiguration(), true);
+            try {
+                for(BuildResult build: build(getLastCommits(date), worktree)){
                     projects.addProjects(build.getProjects());
                     projects.setDate(date);
                     projects.asSet().forEach(p -> p.setDate(date));
                 }
             } catch (GitAPIException | IOException e) {
                 logger.log(Level.ERROR, "Git API error (this iteration will be ignored): {}", e.getMessage());
-                projects = next();
+                return Optional.empty();
+            }
+
+            return Optional.of(projects);
+        }
+
+        private List<BuildResult> build(Map<LocalRepository, GitCommit> lastCommits, Map<LocalRepository, Worktree> worktree) throws GitAPIException, IOException {
+            final List<BuildResult> builds = new ArrayList<>(lastCommits.size());
+
+            if(buildExecutor == null){
+                for(Map.Entry<LocalRepository, GitCommit> entry: lastCommits.entrySet()){
+                    builds.add(build(entry.getKey(), worktree.get(entry.getKey()), entry.getValue()));
+                }
+
+                return builds;
+            }
+
+            final List<Future<BuildResult>> futures = new ArrayList<>(lastCommits.size());
+
+            for(Map.Entry<LocalRepository, GitCommit> entry: lastCommits.entrySet()){
+                futures.add(buildExecutor.submit(() -> build(entry.getKey(), worktree.get(entry.getKey()), entry.getValue())));
+            }
+
+            try {
+                for(Future<BuildResult> future: futures){
+                    builds.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while building repositories");
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw unwrap(e);
+            }
+
+            return builds;
+        }
+
+        private BuildResult build(LocalRepository localRepository, Worktree worktree, GitCommit commit) throws GitAPIException, IOException {
+            if(snapshotCache == null){
+                checkout(worktree, commit);
+                return build(getProjectFolders(localRepository, worktree.location));
+            }
+
+            final String key = getSnapshotKey(worktree, commit);
+            Optional<SnapshotCache.Lease> snapshot = snapshotCache.acquire(key);
+
+            if(snapshot.isPresent()){
+                logger.log(Level.DEBUG, "Load {} from snapshot {}", localRepository.getRemoteUrl(), key);
+            }
+            else{
+                checkout(worktree, commit);
+                snapshot = Optional.of(snapshotCache.put(key, worktree.location, file -> !file.getName().equals(Constants.DOT_GIT)));
+            }
+
+            try(SnapshotCache.Lease lease = snapshot.get()){
+                final File repositoryFolder = new File(lease.getFolder(), worktree.location.getName());
+                return build(getProjectFolders(localRepository, repositoryFolder));
+            }
+        }
+
+        private static BuildResult build(Set<File> folders){
+            // ikora-core keeps static state in its parser and resolver, only checkouts run concurrently
+            synchronized (BUILD_LOCK){
+                return Builder.build(folders, new BuildConfiguration(), true);
+            }
+        }
+
+        private static void checkout(Worktree worktree, GitCommit commit) throws GitAPIException, IOException {
+            if(worktree.commitId == null || !worktree.commitId.equals(commit.getId())){
+                GitUtils.checkout(worktree.git, commit.getId());
+                worktree.commitId = commit.getId();
+            }
+        }
+
+        private static String getSnapshotKey(Worktree worktree, GitCommit commit) throws IOException {
+            try(RevWalk walk = new RevWalk(worktree.git.getRepository())){
+                final RevTree tree = walk.parseCommit(ObjectId.fromString(commit.getId())).getTree();
+                return String.format("%s-%s", worktree.location.getName(), tree.getId().name());
+            }
+        }
+
+        private static GitAPIException unwrap(ExecutionException e) throws IOException {
+            final Throwable cause = e.getCause();
+
+            if(cause instanceof GitAPIException){
+                return (GitAPIException) cause;
+            }
+
+            if(cause instanceof IOException){
+                throw (IOException) cause;
+            }
+
+            if(cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
             }
 
-            return projects;
+            throw new IOException(cause);
         }
 
         private Map<LocalRepository, GitCommit> getLastCommits(Instant date){
@@ -170,16 +466,15 @@ public class GitProvider implements VersionProvider {
             return commit;
         }
 
-        private Set<File> getProjectFolders(LocalRepository localRepository){
+        private Set<File> getProjectFolders(LocalRepository localRepository, File repositoryFolder){
             Set<String> projectFolderNames = this.projectFolders.get(localRepository);
 
             if(projectFolderNames == null || projectFolderNames.isEmpty()){
-                return Collections.singleton(localRepository.getLocation());
+                return Collections.singleton(repositoryFolder);
             }
 
             Set<File> folders = new HashSet<>(projectFolderNames.size());
 
-            File repositoryFolder = localRepository.getLocation();
             for(String projectFolderName: projectFolderNames){
                 File projectFolder = new File(repositoryFolder, projectFolderName);
 
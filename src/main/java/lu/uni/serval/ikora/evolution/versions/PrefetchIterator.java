@@ -0,0 +1,155 @@
+package lu.uni.serval.ikora.evolution.versions;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public class PrefetchIterator<T> implements Iterator<T>, Closeable {
+    private final Iterator<T> source;
+    private final BlockingQueue<Item<T>> queue;
+    private final Thread thread;
+    private final Duration closeTimeout;
+    private Item<T> current = null;
+
+    public PrefetchIterator(Iterator<T> source, int capacity){
+        this(source, capacity, Duration.ofMinutes(1));
+    }
+
+    public PrefetchIterator(Iterator<T> source, int capacity, Duration closeTimeout){
+        this.source = source;
+        this.queue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        this.closeTimeout = closeTimeout;
+        this.thread = new Thread(this::run, "evolution-prefetch");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void run(){
+        try {
+            try {
+                while (source.hasNext()){
+                    queue.put(Item.of(source.next()));
+                }
+
+                queue.put(Item.end());
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Throwable e) {
+                queue.put(Item.failure(e));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !peek().isEnd();
+    }
+
+    @Override
+    public T next() {
+        final Item<T> item = peek();
+
+        if(item.isEnd()){
+            throw new NoSuchElementException();
+        }
+
+        if(item.error instanceof RuntimeException){
+            throw (RuntimeException) item.error;
+        }
+
+        if(item.error instanceof Error){
+            throw (Error) item.error;
+        }
+
+        if(item.error != null){
+            throw new IllegalStateException("Failed to load the next version", item.error);
+        }
+
+        current = null;
+        return item.value;
+    }
+
+    private Item<T> peek(){
+        if(current == null){
+            try {
+                current = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next version", e);
+            }
+        }
+
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+        thread.interrupt();
+
+        try {
+            thread.join(closeTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the version loader to stop");
+        }
+
+        if(thread.isAlive()){
+            throw new IOException(String.format("Version loader did not stop within %d ms", closeTimeout.toMillis()));
+        }
+    }
+
+    private static class Item<T> {
+        private final T value;
+        private final Throwable error;
+        private final boolean end;
+
+        private Item(T value, Throwable error, boolean end) {
+            this.value = value;
+            this.error = error;
+            this.end = end;
+        }
+
+        static <T> Item<T> of(T value){
+            return new Item<>(value, null, false);
+        }
+
+        static <T> Item<T> failure(Throwable error){
+            return new Item<>(null, error, false);
+        }
+
+        static <T> Item<T> end(){
+            return new Item<>(null, null, true);
+        }
+
+        boolean isEnd(){
+            return end;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package lu.uni.serval.ikora.evolution.versions;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+// caches checked out source trees, not built Projects: a hit saves the checkout but still parses the snapshot
+public class SnapshotCache {
+    private static final Logger logger = LogManager.getLogger(SnapshotCache.class);
+
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final File location;
+    private final long capacity;
+    private final LinkedHashMap<String, Long> entries;
+    private final Map<String, Integer> leases;
+    private long size;
+
+    public SnapshotCache(File location, long capacity) throws IOException {
+        if(!location.exists() && !location.mkdirs()){
+            throw new IOException(String.format("Failed to create directory: %s", location.getAbsolutePath()));
+        }
+
+        this.location = location;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.leases = new HashMap<>();
+        this.size = 0;
+
+        load();
+    }
+
+    public synchronized Optional<Lease> acquire(String key){
+        if(entries.get(key) == null){
+            return Optional.empty();
+        }
+
+        final File entry = new File(location, key);
+
+        if(!entry.setLastModified(System.currentTimeMillis())){
+            logger.log(Level.DEBUG, "Failed to update access time of snapshot {}", key);
+        }
+
+        return Optional.of(lease(key));
+    }
+
+    public Lease put(String key, File source, FileFilter filter) throws IOException {
+        final File temporary = new File(location, String.format("%s-%d%s", key, Thread.currentThread().getId(), TEMPORARY_SUFFIX));
+
+        FileUtils.deleteQuietly(temporary);
+        FileUtils.copyDirectory(source, new File(temporary, source.getName()), filter);
+
+        final long entrySize = FileUtils.sizeOfDirectory(temporary);
+
+        synchronized (this){
+            if(entries.containsKey(key)){
+                FileUtils.deleteQuietly(temporary);
+                return lease(key);
+            }
+
+            Files.move(temporary.toPath(), new File(location, key).toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+            entries.put(key, entrySize);
+            size += entrySize;
+
+            final Lease lease = lease(key);
+            evict();
+
+            return lease;
+        }
+    }
+
+    private Lease lease(String key){
+        leases.merge(key, 1, Integer::sum);
+        return new Lease(key, new File(location, key));
+    }
+
+    private synchronized void release(String key){
+        if(leases.merge(key, -1, Integer::sum) <= 0){
+            leases.remove(key);
+        }
+    }
+
+    private void evict(){
+        final Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+
+        while (size > capacity && iterator.hasNext()){
+            final Map.Entry<String, Long> entry = iterator.next();
+
+            if(leases.containsKey(entry.getKey())){
+                continue;
+            }
+
+            FileUtils.deleteQuietly(new File(location, entry.getKey()));
+            size -= entry.getValue();
+            iterator.remove();
+
+            logger.log(Level.DEBUG, "Evicted snapshot {}", entry.getKey());
+        }
+    }
+
+    private void load(){
+        final File[] folders = location.listFiles(File::isDirectory);
+
+        if(folders == null){
+            return;
+        }
+
+        Arrays.sort(folders, Comparator.comparingLong(File::lastModified));
+
+        for(File folder: folders){
+            if(folder.getName().endsWith(TEMPORARY_SUFFIX)){
+                FileUtils.deleteQuietly(folder);
+                continue;
+            }
+
+            final long entrySize = FileUtils.sizeOfDirectory(folder);
+
+            entries.put(folder.getName(), entrySize);
+            size += entrySize;
+        }
+
+        evict();
+    }
+
+    public class Lease implements Closeable {
+        private final String key;
+        private final File folder;
+        private boolean released;
+
+        private Lease(String key, File folder) {
+            this.key = key;
+            this.folder = folder;
+            this.released = false;
+        }
+
+        public File getFolder() {
+            return folder;
+        }
+
+        @Override
+        public synchronized void close() {
+            if(!released){
+                released = true;
+                release(key);
+            }
+        }
+    }
+}
@@ -25,7 +25,10 @@ import lu.uni.serval.ikora.core.model.Projects;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Iterator;
 
 public interface VersionProvider extends Iterable<Projects>, Closeable {
     File getRootFolder() throws IOException;
+    Iterator<Projects> iterator(String versionId, Instant date);
 }
@@ -28,6 +28,7 @@ import lu.uni.serval.commons.git.utils.CommitCollector;
 import lu.uni.serval.commons.git.utils.GitCommit;
 import lu.uni.serval.commons.git.utils.GitUtils;
 import lu.uni.serval.commons.git.utils.LocalRepository;
+import lu.uni.serval.ikora.evolution.configuration.CacheConfiguration;
 import lu.uni.serval.ikora.evolution.configuration.EvolutionConfiguration;
 import lu.uni.serval.ikora.evolution.configuration.FolderConfiguration;
 import lu.uni.serval.ikora.evolution.configuration.GitConfiguration;
@@ -54,7 +55,7 @@ public class VersionProviderFactory {
             provider = createFolderProvider(configuration.getFolderConfiguration());
         }
         else if(configuration.getGitConfiguration() != null){
-            provider = createGitProvider(configuration.getGitConfiguration());
+            provider = createGitProvider(configuration.getGitConfiguration(), configuration.getCacheConfiguration());
         }
         else{
             throw new InvalidConfigurationException("Configuration should have a folder or git section");
@@ -67,8 +68,15 @@ public class VersionProviderFactory {
         return new FolderProvider(configuration.getRootFolder(), configuration.getNameFormat(), configuration.getDateFormat());
     }
 
-    private static VersionProvider createGitProvider(GitConfiguration configuration) throws IOException, InvalidGitRepositoryException, GitAPIException {
-        final GitProvider provider = new GitProvider(configuration.getFrequency());
+    private static VersionProvider createGitProvider(GitConfiguration configuration, CacheConfiguration cacheConfiguration) throws IOException, InvalidGitRepositoryException, GitAPIException {
+        final GitProvider provider = new GitProvider(configuration.getFrequency(), configuration.getBuildThreads());
+
+        if(cacheConfiguration != null){
+            provider.setSnapshotCache(new SnapshotCache(
+                    cacheConfiguration.getSnapshotLocation(),
+                    cacheConfiguration.getMaximumSize() * 1024 * 1024
+            ));
+        }
 
         logger.info("Initializing repositories...");
         for(LocalRepository localRepository: getLocalRepositories(provider.getRootFolder(), configuration)){
@@ -93,6 +101,8 @@ public class VersionProviderFactory {
 
             provider.addRepository(localRepository, commits, projectFolders);
         }
+
+        provider.initializeWorktrees(configuration.getWorktrees());
         logger.info("Repositories initialized.");
 
         return provider;
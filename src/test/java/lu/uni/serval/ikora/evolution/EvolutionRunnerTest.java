@@ -21,19 +21,37 @@ package lu.uni.serval.ikora.evolution;
  */
 
 import lu.uni.serval.commons.git.exception.InvalidGitRepositoryException;
+import lu.uni.serval.ikora.core.analytics.difference.Edit;
+import lu.uni.serval.ikora.core.model.Projects;
+import lu.uni.serval.ikora.evolution.export.Checkpoint;
 import lu.uni.serval.ikora.evolution.export.ExporterFactory;
 import lu.uni.serval.ikora.evolution.results.BaseRecord;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 import lu.uni.serval.ikora.evolution.configuration.EvolutionConfiguration;
+import lu.uni.serval.ikora.evolution.configuration.ExecutionConfiguration;
 import lu.uni.serval.ikora.evolution.export.EvolutionExport;
 import lu.uni.serval.ikora.evolution.export.InMemoryExporter;
 import lu.uni.serval.ikora.evolution.results.SmellRecord;
+import lu.uni.serval.ikora.evolution.smells.History;
 import lu.uni.serval.ikora.smells.SmellMetric;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -246,12 +264,167 @@ class EvolutionRunnerTest {
         assertEquals(2., records.get(2).getBeforeFixVersionCount());
     }
 
+    @Test
+    void testPipelinedExecutionKeepsRecords() throws GitAPIException, IOException, InvalidGitRepositoryException, InterruptedException {
+        final List<SmellRecord> sequential = executeAnalysis("history", EvolutionExport.Statistics.SMELL, SmellRecord.class);
+        final List<SmellRecord> pipelined = executeAnalysis("history", EvolutionExport.Statistics.SMELL, SmellRecord.class,
+                c -> c.getExecutionConfiguration().setPipelineDepth(2));
+
+        assertSameRecords(sequential, pipelined);
+    }
+
+    @Test
+    void testParallelSmellDetectionKeepsRecords() throws GitAPIException, IOException, InvalidGitRepositoryException, InterruptedException {
+        final List<SmellRecord> sequential = executeAnalysis("army-of-clones", EvolutionExport.Statistics.SMELL, SmellRecord.class);
+        final List<SmellRecord> parallel = executeAnalysis("army-of-clones", EvolutionExport.Statistics.SMELL, SmellRecord.class,
+                c -> c.getExecutionConfiguration().setSmellThreads(4));
+
+        assertSameRecords(sequential, parallel);
+    }
+
+    @ParameterizedTest(name = "{0} on {1}")
+    @MethodSource("getExecutionOptions")
+    void testExecutionOptionKeepsRecords(String option, String resources, Consumer<ExecutionConfiguration> setup) throws GitAPIException, IOException, InvalidGitRepositoryException, InterruptedException {
+        final List<SmellRecord> detected = executeAnalysis(resources, EvolutionExport.Statistics.SMELL, SmellRecord.class);
+        final List<SmellRecord> optimized = executeAnalysis(resources, EvolutionExport.Statistics.SMELL, SmellRecord.class,
+                c -> setup.accept(c.getExecutionConfiguration()));
+
+        assertSameRecords(detected, optimized);
+    }
+
+    private static Stream<Arguments> getExecutionOptions(){
+        return Stream.of(
+                getExecutionOption("smell cache", c -> c.setSmellCache(true), "history", "army-of-clones", "long-test-steps"),
+                getExecutionOption("clone index", c -> c.setCloneIndex(true), "history", "army-of-clones"),
+                getExecutionOption("fix gating", c -> c.setFixGating(true), "missing-assertion", "long-test-steps", "sensitive-locator", "army-of-clones"),
+                getExecutionOption("keyword smells", c -> c.setKeywordSmells(true), "missing-assertion", "conditional-assertion", "history", "middle-man"),
+                getExecutionOption("incremental smells", c -> c.setIncrementalSmells(true), "history", "missing-assertion", "long-test-steps", "sensitive-locator", "army-of-clones")
+        ).flatMap(Function.identity());
+    }
+
+    private static Stream<Arguments> getExecutionOption(String option, Consumer<ExecutionConfiguration> setup, String... resources){
+        return Arrays.stream(resources).map(resource -> Arguments.of(option, resource, setup));
+    }
+
+    @Test
+    void testResumeFromCheckpointKeepsRecords() throws GitAPIException, IOException, InvalidGitRepositoryException, InterruptedException {
+        final File checkpointFile = Files.createTempFile("checkpoint", ".json").toFile();
+        checkpointFile.deleteOnExit();
+
+        final Consumer<EvolutionConfiguration> setup = c -> {
+            c.getExecutionConfiguration().setCheckpointInterval(2);
+            c.getExecutionConfiguration().setCheckpointFile(checkpointFile);
+        };
+
+        final List<SmellRecord> complete = executeAnalysis("history", EvolutionExport.Statistics.SMELL, SmellRecord.class, setup);
+        final Checkpoint checkpoint = Checkpoint.load(checkpointFile);
+        final List<SmellRecord> resumed = executeAnalysis("history", EvolutionExport.Statistics.SMELL, SmellRecord.class, setup, checkpoint);
+
+        assertEquals(2, checkpoint.getVersionCount());
+        assertEquals("v2", checkpoint.getVersionId());
+        assertSameRecords(complete.stream().filter(r -> r.getVersion().equals("v3")).collect(Collectors.toList()), resumed);
+    }
+
+    @Test
+    void testResumeFromUnknownVersionFails() throws GitAPIException, IOException, InvalidGitRepositoryException, InterruptedException {
+        final File checkpointFile = Files.createTempFile("checkpoint", ".json").toFile();
+        checkpointFile.deleteOnExit();
+
+        final Consumer<EvolutionConfiguration> setup = c -> {
+            c.getExecutionConfiguration().setCheckpointInterval(2);
+            c.getExecutionConfiguration().setCheckpointFile(checkpointFile);
+        };
+
+        executeAnalysis("history", EvolutionExport.Statistics.SMELL, SmellRecord.class, setup);
+
+        final String content = Files.readString(checkpointFile.toPath());
+        Files.writeString(checkpointFile.toPath(), content.replace("\"v2\"", "\"v9\""));
+
+        final Checkpoint checkpoint = Checkpoint.load(checkpointFile);
+
+        assertThrows(IllegalArgumentException.class, () -> executeAnalysis("history", EvolutionExport.Statistics.SMELL, SmellRecord.class, setup, checkpoint));
+    }
+
+    @Test
+    void testResumeWithIncrementalSmellsFails() throws GitAPIException, IOException, InvalidGitRepositoryException, InterruptedException {
+        final File checkpointFile = Files.createTempFile("checkpoint", ".json").toFile();
+        checkpointFile.deleteOnExit();
+
+        final Consumer<EvolutionConfiguration> setup = c -> {
+            c.getExecutionConfiguration().setCheckpointInterval(2);
+            c.getExecutionConfiguration().setCheckpointFile(checkpointFile);
+            c.getExecutionConfiguration().setIncrementalSmells(true);
+        };
+
+        executeAnalysis("history", EvolutionExport.Statistics.SMELL, SmellRecord.class, setup);
+        final Checkpoint checkpoint = Checkpoint.load(checkpointFile);
+
+        assertThrows(IllegalStateException.class, () -> executeAnalysis("history", EvolutionExport.Statistics.SMELL, SmellRecord.class, setup, checkpoint));
+    }
+
+    @Test
+    void testVersionPairsAreNotComputedWithoutSmells() throws GitAPIException, IOException, InvalidGitRepositoryException, InterruptedException {
+        assertTrue(getQueriedVersions(EvolutionExport.Statistics.PROJECT).isEmpty());
+        assertFalse(getQueriedVersions(EvolutionExport.Statistics.SMELL).isEmpty());
+    }
+
+    private static Set<Projects> getQueriedVersions(EvolutionExport.Statistics statistics) throws GitAPIException, IOException, InvalidGitRepositoryException, InterruptedException {
+        final EvolutionConfiguration configuration = Helpers.createConfiguration("history", statistics);
+
+        if(statistics != EvolutionExport.Statistics.SMELL){
+            configuration.getOutputConfiguration().setSmellsCsvFile(null);
+        }
+
+        try(EvolutionExport exporter = ExporterFactory.fromConfiguration(configuration)){
+            final RecordingHistory history = new RecordingHistory();
+            final EvolutionRunner evolutionRunner = new EvolutionRunner(exporter, configuration, null, history);
+            evolutionRunner.execute();
+
+            assertFalse(((InMemoryExporter)exporter.getExporters().get(statistics)).getRecords().isEmpty());
+
+            return history.queriedVersions;
+        }
+    }
+
+    private static class RecordingHistory extends History {
+        private final Set<Projects> queriedVersions = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        @Override
+        public Set<Edit> getEdits(Projects version) {
+            queriedVersions.add(version);
+            return super.getEdits(version);
+        }
+
+        @Override
+        public Optional<Projects> findPreviousVersion(Projects version) {
+            queriedVersions.add(version);
+            return super.findPreviousVersion(version);
+        }
+    }
+
+    private static void assertSameRecords(List<? extends BaseRecord> expected, List<? extends BaseRecord> actual){
+        assertEquals(expected.size(), actual.size());
+
+        for(int i = 0; i < expected.size(); ++i){
+            assertArrayEquals(expected.get(i).getValues(false), actual.get(i).getValues(false));
+        }
+    }
+
     private <T extends BaseRecord> List<T> executeAnalysis(String resourcesPath, EvolutionExport.Statistics statistics, Class<T> type) throws GitAPIException, IOException, InvalidGitRepositoryException, InterruptedException {
+        return executeAnalysis(resourcesPath, statistics, type, c -> {});
+    }
+
+    private <T extends BaseRecord> List<T> executeAnalysis(String resourcesPath, EvolutionExport.Statistics statistics, Class<T> type, Consumer<EvolutionConfiguration> setup) throws GitAPIException, IOException, InvalidGitRepositoryException, InterruptedException {
+        return executeAnalysis(resourcesPath, statistics, type, setup, null);
+    }
+
+    private <T extends BaseRecord> List<T> executeAnalysis(String resourcesPath, EvolutionExport.Statistics statistics, Class<T> type, Consumer<EvolutionConfiguration> setup, Checkpoint checkpoint) throws GitAPIException, IOException, InvalidGitRepositoryException, InterruptedException {
         final EvolutionConfiguration configuration = Helpers.createConfiguration(resourcesPath, statistics);
+        setup.accept(configuration);
 
 
         try(EvolutionExport exporter = ExporterFactory.fromConfiguration(configuration)){
-            final EvolutionRunner evolutionRunner = new EvolutionRunner(exporter, configuration);
+            final EvolutionRunner evolutionRunner = new EvolutionRunner(exporter, configuration, checkpoint);
             evolutionRunner.execute();
 
             return ((InMemoryExporter)exporter.getExporters().get(statistics)).getRecords().stream()
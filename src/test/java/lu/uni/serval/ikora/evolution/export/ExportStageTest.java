@@ -0,0 +1,122 @@
+package lu.uni.serval.ikora.evolution.export;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportStageTest {
+    @Test
+    void testCloseExportsPendingBatches() throws IOException, InterruptedException {
+        final RecordingExport export = new RecordingExport(null);
+
+        try(ExportStage exportStage = new ExportStage(export, 4)){
+            exportStage.submit(new RecordBatch("v1"));
+            exportStage.submit(new RecordBatch("v2"));
+            exportStage.submit(new RecordBatch("v3"));
+        }
+
+        assertEquals(Arrays.asList("v1", "v2", "v3"), export.getVersions());
+    }
+
+    @Test
+    void testExportFailureIsReportedOnClose() throws InterruptedException {
+        final RecordingExport export = new RecordingExport("v2");
+        final ExportStage exportStage = new ExportStage(export, 4);
+
+        assertThrows(IOException.class, () -> {
+            exportStage.submit(new RecordBatch("v1"));
+            exportStage.submit(new RecordBatch("v2"));
+            exportStage.submit(new RecordBatch("v3"));
+            exportStage.close();
+        });
+
+        assertEquals(Collections.singletonList("v1"), export.getVersions());
+    }
+
+    @Test
+    void testExportFailureIsReportedOnSubmit() throws InterruptedException {
+        final RecordingExport export = new RecordingExport("v0");
+        final ExportStage exportStage = new ExportStage(export, 1);
+
+        IOException exception = null;
+
+        for(int i = 0; i < 500 && exception == null; ++i){
+            try {
+                exportStage.submit(new RecordBatch("v" + i));
+                Thread.sleep(10);
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+
+        assertNotNull(exception);
+        assertEquals("v0", exception.getMessage());
+        assertTrue(export.getVersions().isEmpty());
+        assertThrows(IOException.class, exportStage::close);
+    }
+
+    @Test
+    void testErrorFromExporterIsWrapped() throws IOException, InterruptedException {
+        final EvolutionExport export = new EvolutionExport(Exporter.Strategy.IN_MEMORY, Collections.emptyMap(), false){
+            @Override
+            public void export(RecordBatch batch) {
+                throw new StackOverflowError();
+            }
+        };
+
+        final ExportStage exportStage = new ExportStage(export, 1);
+        exportStage.submit(new RecordBatch("v1"));
+
+        final IOException exception = assertThrows(IOException.class, exportStage::close);
+        assertTrue(exception.getCause() instanceof StackOverflowError);
+    }
+
+    private static class RecordingExport extends EvolutionExport {
+        private final String failingVersion;
+        private final List<String> versions = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingExport(String failingVersion){
+            super(Exporter.Strategy.IN_MEMORY, Collections.emptyMap(), false);
+            this.failingVersion = failingVersion;
+        }
+
+        @Override
+        public void export(RecordBatch batch) throws IOException {
+            if(batch.getVersionId().equals(failingVersion)){
+                throw new IOException(batch.getVersionId());
+            }
+
+            versions.add(batch.getVersionId());
+        }
+
+        List<String> getVersions(){
+            return new ArrayList<>(versions);
+        }
+    }
+}
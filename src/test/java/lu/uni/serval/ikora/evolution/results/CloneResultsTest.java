@@ -0,0 +1,95 @@
+package lu.uni.serval.ikora.evolution.results;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.BuildConfiguration;
+import lu.uni.serval.ikora.core.analytics.clones.Clones;
+import lu.uni.serval.ikora.core.analytics.clones.KeywordCloneDetection;
+import lu.uni.serval.ikora.core.builder.Builder;
+import lu.uni.serval.ikora.core.model.KeywordDefinition;
+import lu.uni.serval.ikora.core.model.Projects;
+import lu.uni.serval.ikora.core.utils.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CloneResultsTest {
+    @Test
+    void testMatchesFullDetectionAcrossVersions() throws Exception {
+        final CloneResults cloneResults = new CloneResults();
+
+        for(String resourcesPath: new String[] {"army-of-clones/v1", "army-of-clones/v2", "history/v1", "army-of-clones/v1"}){
+            final Projects version = build(resourcesPath);
+            assertSameClones(version, KeywordCloneDetection.findClones(version), cloneResults.getKeywords(version));
+        }
+    }
+
+    @Test
+    void testDetectsClonesInFirstVersion() throws Exception {
+        final Projects version = build("army-of-clones/v1");
+        final Clones<KeywordDefinition> clones = new CloneResults().getKeywords(version);
+
+        assertTrue(clones.size(Clones.Type.TYPE_1) + clones.size(Clones.Type.TYPE_2) + clones.size(Clones.Type.TYPE_3) > 0);
+    }
+
+    @Test
+    void testSameVersionIsNotRecomputed() throws Exception {
+        final Projects version = build("army-of-clones/v1");
+        final CloneResults cloneResults = new CloneResults();
+
+        final Clones<KeywordDefinition> first = cloneResults.getKeywords(version);
+        final int comparisons = cloneResults.getComparisons();
+
+        assertSame(first, cloneResults.getKeywords(version));
+        assertEquals(comparisons, cloneResults.getComparisons());
+    }
+
+    @Test
+    void testUnchangedKeywordsAreNotCompared() throws Exception {
+        final CloneResults cloneResults = new CloneResults();
+
+        cloneResults.getKeywords(build("army-of-clones/v1"));
+        final int comparisons = cloneResults.getComparisons();
+
+        cloneResults.getKeywords(build("army-of-clones/v1"));
+        assertEquals(comparisons, cloneResults.getComparisons());
+    }
+
+    private static void assertSameClones(Projects version, Clones<KeywordDefinition> expected, Clones<KeywordDefinition> actual){
+        for(Clones.Type type: new Clones.Type[] {Clones.Type.TYPE_1, Clones.Type.TYPE_2, Clones.Type.TYPE_3}){
+            assertEquals(expected.size(type), actual.size(type), type.name());
+        }
+
+        final List<KeywordDefinition> definitions = new ArrayList<>(version.getTestCases());
+        definitions.addAll(version.getUserKeywords());
+
+        for(KeywordDefinition definition: definitions){
+            assertEquals(expected.getCloneType(definition), actual.getCloneType(definition), definition.getName());
+        }
+    }
+
+    private static Projects build(String resourcesPath) throws Exception {
+        return Builder.build(FileUtils.getResourceFile(resourcesPath), new BuildConfiguration(), true).getProjects();
+    }
+}
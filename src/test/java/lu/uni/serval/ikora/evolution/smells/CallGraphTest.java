@@ -0,0 +1,91 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.BuildConfiguration;
+import lu.uni.serval.ikora.core.analytics.KeywordStatistics;
+import lu.uni.serval.ikora.core.builder.Builder;
+import lu.uni.serval.ikora.core.model.*;
+import lu.uni.serval.ikora.core.utils.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallGraphTest {
+    @Test
+    void testCallersIncludeTransitiveTestCase() throws Exception {
+        final Projects version = build("history/v1");
+        final UserKeyword inputUsername = getUserKeyword(version, "Input Username");
+        final Step step = inputUsername.getSteps().get(0);
+
+        final List<KeywordDefinition> callers = new CallGraph(version).getCallers(step);
+
+        assertTrue(callers.contains(getUserKeyword(version, "User \"${username}\" logs in with password \"${password}\"")));
+        assertTrue(callers.contains(version.getTestCases().iterator().next()));
+    }
+
+    @Test
+    void testStepAndDefinitionShareCallers() throws Exception {
+        final Projects version = build("history/v1");
+        final UserKeyword inputUsername = getUserKeyword(version, "Input Username");
+        final CallGraph callGraph = new CallGraph(version);
+
+        assertEquals(callGraph.getCallers(inputUsername), callGraph.getCallers(inputUsername.getSteps().get(0)));
+    }
+
+    @Test
+    void testPrecomputedCallersMatchDependencies() throws Exception {
+        final Projects version = build("history/v1");
+        final CallGraph callGraph = new CallGraph(version);
+
+        for(UserKeyword keyword: version.getUserKeywords()){
+            final List<KeywordDefinition> callers = callGraph.getCallers(keyword);
+
+            assertEquals(KeywordStatistics.getDependencies(keyword), new HashSet<>(callers));
+            assertSame(callers, callGraph.getCallers(keyword));
+            assertThrows(UnsupportedOperationException.class, () -> callers.add(keyword));
+        }
+    }
+
+    @Test
+    void testDefinitionOfStep() throws Exception {
+        final Projects version = build("history/v1");
+        final UserKeyword inputUsername = getUserKeyword(version, "Input Username");
+
+        assertSame(inputUsername, CallGraph.getDefinition(inputUsername.getSteps().get(0)));
+        assertSame(inputUsername, CallGraph.getDefinition(inputUsername));
+        assertNull(CallGraph.getDefinition(null));
+    }
+
+    private static UserKeyword getUserKeyword(Projects version, String name){
+        return version.getUserKeywords().stream()
+                .filter(keyword -> keyword.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(String.format("Missing keyword '%s'", name)));
+    }
+
+    private static Projects build(String resourcesPath) throws Exception {
+        return Builder.build(FileUtils.getResourceFile(resourcesPath), new BuildConfiguration(), true).getProjects();
+    }
+}
@@ -0,0 +1,169 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.BuildConfiguration;
+import lu.uni.serval.ikora.core.builder.Builder;
+import lu.uni.serval.ikora.core.model.Projects;
+import lu.uni.serval.ikora.core.model.SourceNode;
+import lu.uni.serval.ikora.core.model.TestCase;
+import lu.uni.serval.ikora.core.utils.FileUtils;
+import lu.uni.serval.ikora.smells.SmellMetric;
+import lu.uni.serval.ikora.smells.SmellResult;
+import lu.uni.serval.ikora.smells.SmellResults;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalDouble;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryTest {
+    private static final SmellMetric.Type TYPE = SmellMetric.Type.LONG_TEST_STEPS;
+
+    @Test
+    void testPreviousSmellyNodesAreComputedOncePerVersion() throws Exception {
+        final History history = createHistory(true);
+        final Projects version1 = addVersion(history, "history/v1");
+        final TestCase testCase = getTestCase(version1);
+
+        history.addSmells(version1, testCase, createResults(3.0, testCase));
+
+        final Projects version2 = addVersion(history, "history/v2");
+        final List<SourceNode> nodes = history.getPreviousSmellyNodes(version2, TYPE);
+
+        assertEquals(Collections.singletonList(testCase), nodes);
+        assertSame(nodes, history.getPreviousSmellyNodes(version2, TYPE));
+        assertTrue(history.wasSmelly(version2, TYPE, testCase));
+        assertFalse(history.wasSmelly(version2, SmellMetric.Type.NARCISSISTIC, testCase));
+    }
+
+    @Test
+    void testPreviousSmellValueFollowsMatchedTestCase() throws Exception {
+        final History history = createHistory(true);
+        final Projects version1 = addVersion(history, "history/v1");
+
+        history.addSmells(version1, getTestCase(version1), createResults(3.0));
+
+        final Projects version2 = addVersion(history, "history/v2");
+        final OptionalDouble value = history.getPreviousSmellValue(version2, getTestCase(version2), TYPE);
+
+        assertTrue(value.isPresent());
+        assertEquals(3.0, value.getAsDouble(), 0.0);
+        assertFalse(history.getPreviousSmellValue(version1, getTestCase(version1), TYPE).isPresent());
+    }
+
+    @Test
+    void testSmellsOlderThanPreviousVersionAreReleased() throws Exception {
+        final History history = createHistory(true);
+        final Projects version1 = addVersion(history, "history/v1");
+        final TestCase testCase = getTestCase(version1);
+
+        history.addSmells(version1, testCase, createResults(3.0, testCase));
+
+        final Projects version2 = addVersion(history, "history/v2");
+        assertFalse(history.getPreviousSmellyNodes(version2, TYPE).isEmpty());
+
+        addVersion(history, "history/v3");
+
+        assertTrue(history.getPreviousSmellyNodes(version2, TYPE).isEmpty());
+        assertFalse(history.wasSmelly(version2, TYPE, testCase));
+        assertFalse(history.getPreviousSmellValue(version2, getTestCase(version2), TYPE).isPresent());
+    }
+
+    @Test
+    void testLineageSpansAllVersions() throws Exception {
+        final History history = createHistory(true);
+
+        addVersion(history, "history/v1");
+        addVersion(history, "history/v2");
+        final Projects version3 = addVersion(history, "history/v3");
+
+        final Lineage lineage = history.getLineage(version3, getTestCase(version3));
+
+        assertEquals(3, lineage.getSize());
+        assertSame(lineage, history.getLineage(version3, getTestCase(version3)));
+    }
+
+    @Test
+    void testVersionsAreReleasedWithoutLineage() throws Exception {
+        final History history = createHistory(false);
+        final WeakReference<Projects> version1 = new WeakReference<>(addVersion(history, "history/v1"));
+
+        addVersion(history, "history/v2");
+        final Projects version3 = addVersion(history, "history/v3");
+
+        for(int i = 0; i < 10 && version1.get() != null; ++i){
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(version1.get());
+        assertTrue(history.findPreviousVersion(version3).isPresent());
+    }
+
+    @Test
+    void testVersionPairsAreComputedOnDemand() throws Exception {
+        final History history = createHistory(true);
+
+        addVersion(history, "history/v1");
+        final Projects version2 = addVersion(history, "history/v2");
+        final Projects version3 = addVersion(history, "history/v3");
+
+        history.getStatistics(version3);
+        assertFalse(history.isPaired(version3));
+
+        history.getEdits(version3);
+        assertTrue(history.isPaired(version3));
+        assertFalse(history.isPaired(version2));
+    }
+
+    private static History createHistory(boolean trackLineage){
+        final History history = new History();
+        history.setIgnoreProjectName(true);
+        history.setTrackLineage(trackLineage);
+
+        return history;
+    }
+
+    private static Projects addVersion(History history, String resourcesPath) throws Exception {
+        final Projects version = Builder.build(FileUtils.getResourceFile(resourcesPath), new BuildConfiguration(), true).getProjects();
+        history.addVersion(version);
+
+        return version;
+    }
+
+    private static TestCase getTestCase(Projects version){
+        assertEquals(1, version.getTestCases().size());
+        return version.getTestCases().iterator().next();
+    }
+
+    private static SmellResults createResults(double value, SourceNode... nodes){
+        final SmellResults results = new SmellResults();
+        results.add(new SmellResult(TYPE, value, value, new HashSet<>(Arrays.asList(nodes))));
+
+        return results;
+    }
+}
@@ -0,0 +1,165 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.BuildConfiguration;
+import lu.uni.serval.ikora.core.analytics.clones.KeywordCloneDetection;
+import lu.uni.serval.ikora.core.builder.Builder;
+import lu.uni.serval.ikora.core.model.Projects;
+import lu.uni.serval.ikora.core.model.TestCase;
+import lu.uni.serval.ikora.core.utils.FileUtils;
+import lu.uni.serval.ikora.smells.SmellConfiguration;
+import lu.uni.serval.ikora.smells.SmellResult;
+import lu.uni.serval.ikora.smells.SmellResults;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalSmellsTest {
+    private final SmellChecks checks = new SmellChecks();
+    private final History history = new History();
+    private final IncrementalSmells incrementalSmells = new IncrementalSmells(checks, history, true);
+    private final Set<String> detected = new HashSet<>();
+
+    @Test
+    void testFirstVersionIsDetected() throws Exception {
+        analyze(build("incremental-smells/v1"));
+
+        assertEquals(0, incrementalSmells.getHits());
+        assertEquals(2, incrementalSmells.getMisses());
+        assertEquals(0, incrementalSmells.getFallbacks());
+    }
+
+    @Test
+    void testUnchangedVersionIsCopied() throws Exception {
+        analyze(build("history/v1"));
+        detected.clear();
+
+        final Projects version = build("history/v2");
+        final Map<String, String> results = analyze(version);
+
+        assertEquals(1, incrementalSmells.getHits());
+        assertEquals(1, incrementalSmells.getMisses());
+        assertTrue(detected.isEmpty());
+        assertEquals(detectAll(version), results);
+    }
+
+    @Test
+    void testOnlyImpactedTestCasesAreDetected() throws Exception {
+        analyze(build("incremental-smells/v1"));
+        detected.clear();
+
+        final Projects version = build("incremental-smells/v2");
+        final Map<String, String> results = analyze(version);
+
+        assertEquals(Collections.singleton("Valid Login"), detected);
+        assertEquals(1, incrementalSmells.getHits());
+        assertEquals(0, incrementalSmells.getFallbacks());
+        assertEquals(detectAll(version), results);
+    }
+
+    @Test
+    void testEditOutsideKeywordsDetectsWholeVersion() throws Exception {
+        analyze(build("history/v2"));
+        detected.clear();
+
+        final Projects version = build("history/v3");
+        final Map<String, String> results = analyze(version);
+
+        assertEquals(Collections.singleton("Valid Login"), detected);
+        assertEquals(0, incrementalSmells.getHits());
+        assertEquals(1, incrementalSmells.getFallbacks());
+        assertEquals(detectAll(version), results);
+    }
+
+    @Test
+    void testNonConsecutiveVersionIsDetected() throws Exception {
+        final Projects first = build("history/v1");
+        analyze(first);
+
+        history.addVersion(build("history/v2"));
+        detected.clear();
+
+        analyze(build("history/v3"));
+
+        assertEquals(0, incrementalSmells.getHits());
+        assertEquals(Collections.singleton("Valid Login"), detected);
+    }
+
+    private Map<String, String> analyze(Projects version){
+        history.addVersion(version);
+
+        final SmellConfiguration configuration = createConfiguration(version);
+        final Map<String, String> results = new TreeMap<>();
+
+        for(TestCase testCase: version.getTestCases()){
+            final SmellResults smellResults = incrementalSmells.computeMetrics(version, testCase, configuration, () -> {
+                detected.add(testCase.getName());
+                return checks.computeMetrics(testCase, configuration);
+            });
+
+            results.put(testCase.getName(), toString(smellResults));
+        }
+
+        return results;
+    }
+
+    private Map<String, String> detectAll(Projects version){
+        final SmellConfiguration configuration = createConfiguration(version);
+        final Map<String, String> results = new TreeMap<>();
+
+        for(TestCase testCase: version.getTestCases()){
+            results.put(testCase.getName(), toString(checks.computeMetrics(testCase, configuration)));
+        }
+
+        return results;
+    }
+
+    private static String toString(SmellResults results){
+        final List<String> values = new ArrayList<>();
+
+        for(SmellResult result: results){
+            values.add(String.format("%s=%s/%s/%d", result.getType(), result.getRawValue(), result.getNormalizedValue(), result.getNodes().size()));
+        }
+
+        values.sort(String::compareTo);
+
+        return String.join(";", values);
+    }
+
+    private static Projects build(String resourcesPath) throws IOException {
+        try {
+            return Builder.build(FileUtils.getResourceFile(resourcesPath), new BuildConfiguration(), true).getProjects();
+        } catch (Exception e) {
+            throw new IOException(String.format("Failed to load '%s'", resourcesPath), e);
+        }
+    }
+
+    private static SmellConfiguration createConfiguration(Projects version){
+        final SmellConfiguration configuration = new SmellConfiguration();
+        configuration.setClones(KeywordCloneDetection.findClones(version));
+
+        return configuration;
+    }
+}
@@ -0,0 +1,74 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.BuildConfiguration;
+import lu.uni.serval.ikora.core.builder.Builder;
+import lu.uni.serval.ikora.core.model.Projects;
+import lu.uni.serval.ikora.core.model.TestCase;
+import lu.uni.serval.ikora.core.model.UserKeyword;
+import lu.uni.serval.ikora.core.utils.FileUtils;
+import lu.uni.serval.ikora.smells.SmellConfiguration;
+import lu.uni.serval.ikora.smells.SmellMetric;
+import lu.uni.serval.ikora.smells.SmellResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordSmellsTest {
+    @Test
+    void testMatchesMissingAssertionCheck() throws Exception {
+        final SmellChecks checks = new SmellChecks();
+
+        for(String resourcesPath: new String[] {"missing-assertion/v1", "missing-assertion/v2", "missing-assertion/v3", "history/v1", "middle-man/v1"}){
+            final Projects version = build(resourcesPath);
+            final KeywordSmells keywordSmells = new KeywordSmells();
+
+            for(TestCase testCase: version.getTestCases()){
+                final SmellResult expected = checks.computeMetric(SmellMetric.Type.MISSING_ASSERTION, testCase, new SmellConfiguration());
+                final SmellResult actual = keywordSmells.computeMissingAssertion(testCase);
+
+                assertEquals(expected.getRawValue(), actual.getRawValue(), resourcesPath);
+                assertEquals(expected.getNormalizedValue(), actual.getNormalizedValue(), resourcesPath);
+                assertEquals(expected.getNodes(), actual.getNodes(), resourcesPath);
+            }
+        }
+    }
+
+    @Test
+    void testKeywordWithoutAssertionIsMemoized() throws Exception {
+        final Projects version = build("missing-assertion/v1");
+        final KeywordSmells keywordSmells = new KeywordSmells();
+        final UserKeyword keyword = version.getUserKeywords().iterator().next();
+
+        assertFalse(keywordSmells.isMemoized(keyword));
+
+        for(TestCase testCase: version.getTestCases()){
+            assertEquals(1., keywordSmells.computeMissingAssertion(testCase).getRawValue());
+        }
+
+        assertTrue(keywordSmells.isMemoized(keyword));
+    }
+
+    private static Projects build(String resourcesPath) throws Exception {
+        return Builder.build(FileUtils.getResourceFile(resourcesPath), new BuildConfiguration(), true).getProjects();
+    }
+}
@@ -0,0 +1,63 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineageTest {
+    private static final Instant FIRST = Instant.parse("2020-01-01T00:00:00Z");
+    private static final Instant SECOND = Instant.parse("2020-02-01T00:00:00Z");
+
+    @Test
+    void testEmptyLineage() {
+        assertEquals(0, Lineage.empty().getSize());
+        assertNull(Lineage.empty().getIntroductionDate());
+    }
+
+    @Test
+    void testNextKeepsEarliestDate() {
+        final Lineage lineage = new Lineage(1, FIRST).next(SECOND);
+
+        assertEquals(2, lineage.getSize());
+        assertEquals(FIRST, lineage.getIntroductionDate());
+    }
+
+    @Test
+    void testNextFromUnknownDate() {
+        final Lineage lineage = new Lineage(1, null).next(SECOND);
+
+        assertEquals(2, lineage.getSize());
+        assertEquals(SECOND, lineage.getIntroductionDate());
+    }
+
+    @Test
+    void testExtendSharesOriginVersion() {
+        final Lineage origin = new Lineage(3, FIRST);
+        final Lineage lineage = new Lineage(1, SECOND).next(null).extend(origin);
+
+        assertEquals(4, lineage.getSize());
+        assertEquals(FIRST, lineage.getIntroductionDate());
+    }
+}
@@ -0,0 +1,137 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.BuildConfiguration;
+import lu.uni.serval.ikora.core.analytics.clones.KeywordCloneDetection;
+import lu.uni.serval.ikora.core.builder.Builder;
+import lu.uni.serval.ikora.core.model.Projects;
+import lu.uni.serval.ikora.core.model.TestCase;
+import lu.uni.serval.ikora.core.utils.FileUtils;
+import lu.uni.serval.ikora.smells.SmellConfiguration;
+import lu.uni.serval.ikora.smells.SmellResult;
+import lu.uni.serval.ikora.smells.SmellResults;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmellCacheTest {
+    @TempDir
+    File temporary;
+
+    @Test
+    void testReloadedCacheReturnsSameResults() throws Exception {
+        final Projects version = build("history/v1");
+        final SmellConfiguration configuration = createConfiguration(version);
+
+        final List<SmellResults> computed = computeAll(new SmellCache(new SmellChecks(), temporary, true), version, configuration);
+        final SmellCache reloaded = new SmellCache(new SmellChecks(), temporary, true);
+        final List<SmellResults> cached = computeAll(reloaded, version, configuration);
+
+        assertEquals(version.getTestCases().size(), reloaded.getHits());
+        assertEquals(0, reloaded.getMisses());
+        assertEquals(computed.size(), cached.size());
+
+        for(int i = 0; i < computed.size(); ++i){
+            assertEquals(toString(computed.get(i)), toString(cached.get(i)));
+        }
+    }
+
+    @Test
+    void testEvictsEntriesOverCapacity() throws Exception {
+        final SmellCache cache = new SmellCache(new SmellChecks(), temporary, 1, true);
+
+        for(String resourcesPath: new String[] {"history/v1", "army-of-clones/v1", "on-the-fly/v1"}){
+            final Projects version = build(resourcesPath);
+            computeAll(cache, version, createConfiguration(version));
+        }
+
+        assertEquals(3, cache.getMisses());
+        assertEquals(1, countEntries());
+
+        new SmellCache(new SmellChecks(), temporary, 0, true);
+
+        assertEquals(0, countEntries());
+    }
+
+    @Test
+    void testBypassesTestCasesUsingVariableFiles() throws Exception {
+        final Projects version = build("variable-files/v1");
+        final SmellConfiguration configuration = createConfiguration(version);
+
+        computeAll(new SmellCache(new SmellChecks(), temporary, true), version, configuration);
+
+        final SmellCache cache = new SmellCache(new SmellChecks(), temporary, true);
+        computeAll(cache, version, configuration);
+
+        assertEquals(0, cache.getHits());
+        assertEquals(version.getTestCases().size(), cache.getBypassed());
+        assertEquals(0, countEntries());
+    }
+
+    private int countEntries(){
+        final File[] entries = temporary.listFiles((dir, name) -> name.endsWith(".json"));
+        return entries != null ? entries.length : 0;
+    }
+
+    private static List<SmellResults> computeAll(SmellCache cache, Projects version, SmellConfiguration configuration){
+        final List<SmellResults> results = new ArrayList<>();
+
+        for(TestCase testCase: version.getTestCases()){
+            results.add(cache.computeMetrics(version, testCase, configuration));
+        }
+
+        return results;
+    }
+
+    private static String toString(SmellResults results){
+        final List<String> values = new ArrayList<>();
+
+        for(SmellResult result: results){
+            values.add(String.format("%s=%s/%s/%d", result.getType(), result.getRawValue(), result.getNormalizedValue(), result.getNodes().size()));
+        }
+
+        values.sort(String::compareTo);
+
+        return String.join(";", values);
+    }
+
+    private static Projects build(String resourcesPath) throws IOException {
+        try {
+            return Builder.build(FileUtils.getResourceFile(resourcesPath), new BuildConfiguration(), true).getProjects();
+        } catch (Exception e) {
+            throw new IOException(String.format("Failed to load '%s'", resourcesPath), e);
+        }
+    }
+
+    private static SmellConfiguration createConfiguration(Projects version){
+        final SmellConfiguration configuration = new SmellConfiguration();
+        configuration.setClones(KeywordCloneDetection.findClones(version));
+
+        return configuration;
+    }
+}
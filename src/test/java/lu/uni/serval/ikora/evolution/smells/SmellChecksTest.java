@@ -0,0 +1,84 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.BuildConfiguration;
+import lu.uni.serval.ikora.core.analytics.clones.KeywordCloneDetection;
+import lu.uni.serval.ikora.core.builder.Builder;
+import lu.uni.serval.ikora.core.model.Projects;
+import lu.uni.serval.ikora.core.model.TestCase;
+import lu.uni.serval.ikora.core.utils.FileUtils;
+import lu.uni.serval.ikora.smells.SmellConfiguration;
+import lu.uni.serval.ikora.smells.SmellDetector;
+import lu.uni.serval.ikora.smells.SmellMetric;
+import lu.uni.serval.ikora.smells.SmellResult;
+import lu.uni.serval.ikora.smells.SmellResults;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmellChecksTest {
+    @Test
+    void testChecksMatchSmellDetector() throws Exception {
+        final Projects version = Builder.build(FileUtils.getResourceFile("history/v1"), new BuildConfiguration(), true).getProjects();
+        final SmellConfiguration configuration = new SmellConfiguration();
+        configuration.setClones(KeywordCloneDetection.findClones(version));
+
+        final SmellChecks checks = new SmellChecks();
+        assertEquals(SmellDetector.all().getNumberMetrics(), checks.getTypes().size());
+
+        assertFalse(version.getTestCases().isEmpty());
+
+        for(TestCase testCase: version.getTestCases()){
+            final SmellResults expected = SmellDetector.all().computeMetrics(testCase, configuration);
+            final SmellResults actual = checks.computeMetrics(testCase, configuration);
+
+            assertEquals(getTypes(expected), getTypes(actual));
+            assertEquals(checks.getTypes(), getTypes(actual));
+            assertEquals(getValues(expected), getValues(actual));
+        }
+    }
+
+    private static Map<SmellMetric.Type, String> getValues(SmellResults results){
+        final Map<SmellMetric.Type, String> values = new EnumMap<>(SmellMetric.Type.class);
+
+        for(SmellResult result: results){
+            values.put(result.getType(), String.format("%s/%s/%d", result.getRawValue(), result.getNormalizedValue(), result.getNodes().size()));
+        }
+
+        return values;
+    }
+
+    private static Set<SmellMetric.Type> getTypes(SmellResults results){
+        final Set<SmellMetric.Type> types = EnumSet.noneOf(SmellMetric.Type.class);
+
+        for(SmellResult result: results){
+            types.add(result.getType());
+        }
+
+        return types;
+    }
+}
@@ -0,0 +1,120 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.BuildConfiguration;
+import lu.uni.serval.ikora.core.builder.Builder;
+import lu.uni.serval.ikora.core.model.Projects;
+import lu.uni.serval.ikora.core.model.TestCase;
+import lu.uni.serval.ikora.core.utils.FileUtils;
+import lu.uni.serval.ikora.evolution.smells.fix.FixAccumulator;
+import lu.uni.serval.ikora.evolution.smells.fix.FixResult;
+import lu.uni.serval.ikora.smells.SmellConfiguration;
+import lu.uni.serval.ikora.smells.SmellMetric;
+import lu.uni.serval.ikora.smells.SmellResult;
+import lu.uni.serval.ikora.smells.SmellResults;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmellRecordAccumulatorTest {
+    private static final SmellMetric.Type TYPE = SmellMetric.Type.LONG_TEST_STEPS;
+
+    @Test
+    void testGatingSkipsFixDetectionWhenValueDidNotDrop() throws Exception {
+        assertEquals(0, countCollects(true, 3.0, 3.0));
+        assertEquals(0, countCollects(true, 3.0, 4.0));
+    }
+
+    @Test
+    void testGatingKeepsFixDetectionWhenValueDropped() throws Exception {
+        assertEquals(1, countCollects(true, 3.0, 2.0));
+        assertEquals(1, countCollects(true, 3.0, 0.0));
+    }
+
+    @Test
+    void testGatingKeepsFixDetectionWithoutComparableValue() throws Exception {
+        assertEquals(1, countCollects(true, Double.NaN, 3.0));
+        assertEquals(1, countCollects(true, 3.0, Double.NaN));
+        assertEquals(1, countCollects(true, null, 3.0));
+    }
+
+    @Test
+    void testWithoutGatingFixDetectionAlwaysRuns() throws Exception {
+        assertEquals(1, countCollects(false, 3.0, 3.0));
+        assertEquals(1, countCollects(false, 3.0, 4.0));
+    }
+
+    private static int countCollects(boolean fixGating, Double previousValue, double currentValue) throws Exception {
+        final History history = new History();
+        history.setIgnoreProjectName(true);
+
+        final Projects previous = build("history/v1");
+        history.addVersion(previous);
+
+        if(previousValue != null){
+            history.addSmells(previous, getTestCase(previous), createResults(previousValue));
+        }
+
+        final Projects current = build("history/v2");
+        history.addVersion(current);
+
+        final CountingFixAccumulator fixAccumulator = new CountingFixAccumulator(history);
+        final SmellRecordAccumulator accumulator = new SmellRecordAccumulator(fixAccumulator, history, fixGating);
+
+        assertEquals(1, accumulator.createRecords(current, getTestCase(current), createResults(currentValue)).size());
+
+        return fixAccumulator.collects;
+    }
+
+    private static SmellResults createResults(double value){
+        final SmellResults results = new SmellResults();
+        results.add(new SmellResult(TYPE, value, value, Collections.emptySet()));
+
+        return results;
+    }
+
+    private static TestCase getTestCase(Projects version){
+        assertEquals(1, version.getTestCases().size());
+        return version.getTestCases().iterator().next();
+    }
+
+    private static Projects build(String resourcesPath) throws Exception {
+        return Builder.build(FileUtils.getResourceFile(resourcesPath), new BuildConfiguration(), true).getProjects();
+    }
+
+    private static class CountingFixAccumulator extends FixAccumulator {
+        private int collects = 0;
+
+        CountingFixAccumulator(History history){
+            super(new SmellConfiguration(), history);
+        }
+
+        @Override
+        public Set<FixResult> collect(Projects version, TestCase testCase, SmellMetric.Type type) {
+            ++collects;
+            return Collections.emptySet();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package lu.uni.serval.ikora.evolution.smells;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.BuildConfiguration;
+import lu.uni.serval.ikora.core.builder.Builder;
+import lu.uni.serval.ikora.core.model.*;
+import lu.uni.serval.ikora.core.utils.FileUtils;
+import lu.uni.serval.ikora.smells.SmellMetric;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmellyNodesTest {
+    @Test
+    void testNodesAreTrackedPerType() throws Exception {
+        final List<SourceNode> nodes = getUserKeywords();
+        final SmellyNodes smellyNodes = new SmellyNodes();
+
+        smellyNodes.add(SmellMetric.Type.MIDDLE_MAN, Arrays.asList(nodes.get(0), null));
+        smellyNodes.add(SmellMetric.Type.ON_THE_FLY, Collections.singletonList(nodes.get(1)));
+
+        assertTrue(smellyNodes.contains(SmellMetric.Type.MIDDLE_MAN, nodes.get(0)));
+        assertFalse(smellyNodes.contains(SmellMetric.Type.MIDDLE_MAN, nodes.get(1)));
+        assertFalse(smellyNodes.contains(SmellMetric.Type.NARCISSISTIC, nodes.get(0)));
+        assertFalse(smellyNodes.contains(SmellMetric.Type.MIDDLE_MAN, null));
+
+        assertEquals(Collections.singletonList(nodes.get(0)), smellyNodes.get(SmellMetric.Type.MIDDLE_MAN));
+        assertTrue(smellyNodes.get(SmellMetric.Type.NARCISSISTIC).isEmpty());
+        assertEquals(Arrays.asList(nodes.get(0), nodes.get(1)), smellyNodes.getAll());
+    }
+
+    @Test
+    void testListIsRefreshedAfterAdd() throws Exception {
+        final List<SourceNode> nodes = getUserKeywords();
+        final SmellyNodes smellyNodes = new SmellyNodes();
+
+        smellyNodes.add(SmellMetric.Type.MIDDLE_MAN, Collections.singletonList(nodes.get(1)));
+        final List<SourceNode> before = smellyNodes.get(SmellMetric.Type.MIDDLE_MAN);
+
+        assertSame(before, smellyNodes.get(SmellMetric.Type.MIDDLE_MAN));
+
+        smellyNodes.add(SmellMetric.Type.MIDDLE_MAN, Arrays.asList(nodes.get(0), nodes.get(1)));
+
+        assertEquals(Arrays.asList(nodes.get(1), nodes.get(0)), smellyNodes.get(SmellMetric.Type.MIDDLE_MAN));
+        assertEquals(1, before.size());
+        assertThrows(UnsupportedOperationException.class, () -> before.add(nodes.get(0)));
+    }
+
+    private static List<SourceNode> getUserKeywords() throws Exception {
+        final Projects version = Builder.build(FileUtils.getResourceFile("history/v1"), new BuildConfiguration(), true).getProjects();
+        final List<SourceNode> nodes = new ArrayList<>(version.getUserKeywords());
+
+        assertTrue(nodes.size() > 1);
+
+        return nodes;
+    }
+}
@@ -0,0 +1,109 @@
+package lu.uni.serval.ikora.evolution.utils;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.BuildConfiguration;
+import lu.uni.serval.ikora.core.builder.Builder;
+import lu.uni.serval.ikora.core.model.*;
+import lu.uni.serval.ikora.core.utils.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodePathsTest {
+    @Test
+    void testIndexedPathsDecodeToSameNode() throws Exception {
+        final Projects version = build("history/v1");
+        final Map<SourceNode, String> paths = NodePaths.index(version);
+
+        assertFalse(paths.isEmpty());
+
+        for(Map.Entry<SourceNode, String> entry: paths.entrySet()){
+            final Optional<SourceNode> decoded = NodePaths.decode(version, entry.getValue());
+
+            assertTrue(decoded.isPresent(), entry.getValue());
+            assertSame(entry.getKey(), decoded.get());
+        }
+    }
+
+    @Test
+    void testEncodedDefinitionsDecodeToSameNode() throws Exception {
+        final Projects version = build("history/v1");
+
+        for(TestCase testCase: version.getTestCases()){
+            assertRoundTrip(version, testCase);
+        }
+
+        for(UserKeyword userKeyword: version.getUserKeywords()){
+            assertRoundTrip(version, userKeyword);
+
+            for(Step step: userKeyword.getSteps()){
+                assertRoundTrip(version, step);
+            }
+        }
+    }
+
+    @Test
+    void testPathWithoutProjectNameDecodesInOtherVersion() throws Exception {
+        final Projects version1 = build("history/v1");
+        final Projects version2 = build("history/v2");
+
+        final TestCase testCase = version1.getTestCases().iterator().next();
+        final Optional<String> path = NodePaths.encode(testCase, true);
+
+        assertTrue(path.isPresent());
+
+        final Optional<SourceNode> decoded = NodePaths.decode(version2, path.get());
+
+        assertTrue(decoded.isPresent());
+        assertTrue(decoded.get() instanceof TestCase);
+        assertEquals(testCase.getName(), ((TestCase) decoded.get()).getName());
+    }
+
+    @Test
+    void testInvalidPathsAreNotDecoded() throws Exception {
+        final Projects version = build("history/v1");
+
+        assertFalse(NodePaths.decode(version, "no separator").isPresent());
+        assertFalse(NodePaths.decode(version, "*|missing.robot@0").isPresent());
+
+        final String root = NodePaths.getRoot(NodePaths.encode(version.getTestCases().iterator().next()).orElseThrow());
+        assertFalse(NodePaths.decode(version, root + "999").isPresent());
+    }
+
+    private static void assertRoundTrip(Projects version, SourceNode node){
+        final Optional<String> path = NodePaths.encode(node);
+
+        assertTrue(path.isPresent());
+
+        final Optional<SourceNode> decoded = NodePaths.decode(version, path.get());
+
+        assertTrue(decoded.isPresent(), path.get());
+        assertSame(node, decoded.get());
+    }
+
+    private static Projects build(String resourcesPath) throws Exception {
+        return Builder.build(FileUtils.getResourceFile(resourcesPath), new BuildConfiguration(), true).getProjects();
+    }
+}
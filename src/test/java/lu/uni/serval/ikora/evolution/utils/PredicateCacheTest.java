@@ -0,0 +1,71 @@
+package lu.uni.serval.ikora.evolution.utils;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PredicateCacheTest {
+    @Test
+    void testRepeatedValueIsEvaluatedOnce() {
+        final PredicateCache cache = new PredicateCache(10);
+        final AtomicInteger calls = new AtomicInteger(0);
+
+        assertTrue(cache.test("value", v -> calls.incrementAndGet() > 0));
+        assertTrue(cache.test("value", v -> calls.incrementAndGet() > 0));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testNegativeResultIsCached() {
+        final PredicateCache cache = new PredicateCache(10);
+
+        assertFalse(cache.test("value", v -> false));
+        assertFalse(cache.test("value", v -> true));
+
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void testLeastRecentlyUsedValueIsEvicted() {
+        final PredicateCache cache = new PredicateCache(2);
+
+        cache.test("a", v -> true);
+        cache.test("b", v -> true);
+        cache.test("a", v -> true);
+        cache.test("c", v -> true);
+
+        assertEquals(1, cache.getHits());
+
+        cache.test("a", v -> true);
+        assertEquals(2, cache.getHits());
+
+        cache.test("b", v -> true);
+        assertEquals(2, cache.getHits());
+        assertEquals(4, cache.getMisses());
+    }
+}
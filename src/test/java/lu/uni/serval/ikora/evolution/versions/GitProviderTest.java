@@ -0,0 +1,135 @@
+package lu.uni.serval.ikora.evolution.versions;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.model.Projects;
+import lu.uni.serval.ikora.core.model.TestCase;
+import lu.uni.serval.ikora.evolution.configuration.EvolutionConfiguration;
+import lu.uni.serval.ikora.evolution.configuration.GitConfiguration;
+import lu.uni.serval.ikora.evolution.configuration.GitLocation;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitProviderTest {
+    private static final Instant START = Instant.parse("2021-01-01T00:00:00Z");
+
+    @TempDir
+    File temporary;
+
+    @Test
+    void testLookAheadFollowsCommitDates() throws Exception {
+        final File origin = createRepository("git-provider-look-ahead", 4);
+        final List<String> expected = Arrays.asList("Version 0", "Version 1", "Version 2", "Version 3");
+
+        assertEquals(expected, loadVersions(origin, 1, 1));
+        assertEquals(expected, loadVersions(origin, 3, 1));
+        assertEquals(expected, loadVersions(origin, 2, 2));
+    }
+
+    @Test
+    void testWorktreesAreReusedBetweenRuns() throws Exception {
+        final File origin = createRepository("git-provider-reuse", 3);
+        final List<String> expected = loadVersions(origin, 2, 1);
+
+        final File marker = new File(getWorktree(origin, 1), ".git/reuse-marker");
+        assertTrue(marker.createNewFile());
+
+        assertEquals(expected, loadVersions(origin, 2, 1));
+        assertTrue(marker.exists());
+    }
+
+    private List<String> loadVersions(File origin, int worktrees, int buildThreads) throws Exception {
+        final List<String> versions = new ArrayList<>();
+
+        try(VersionProvider provider = VersionProviderFactory.fromConfiguration(createConfiguration(origin, worktrees, buildThreads))){
+            for(Projects version: provider){
+                final List<String> names = new ArrayList<>();
+
+                for(TestCase testCase: version.getTestCases()){
+                    names.add(testCase.getName());
+                }
+
+                assertEquals(1, names.size());
+                versions.add(names.get(0));
+            }
+        }
+
+        return versions;
+    }
+
+    private File getWorktree(File origin, int slot){
+        final File rootFolder = new File(System.getProperty("java.io.tmpdir"), "git-provider");
+        return new File(new File(rootFolder, String.format("worktree-%d", slot)), origin.getName());
+    }
+
+    private EvolutionConfiguration createConfiguration(File origin, int worktrees, int buildThreads) throws Exception {
+        final GitLocation location = new GitLocation();
+        location.setUrl(origin.getAbsolutePath());
+
+        final GitConfiguration gitConfiguration = new GitConfiguration();
+        gitConfiguration.setLocations(Collections.singleton(location));
+        gitConfiguration.setDefaultBranch(getBranch(origin));
+        gitConfiguration.setWorktrees(worktrees);
+        gitConfiguration.setBuildThreads(buildThreads);
+
+        final EvolutionConfiguration configuration = new EvolutionConfiguration();
+        configuration.setGitConfiguration(gitConfiguration);
+
+        return configuration;
+    }
+
+    private File createRepository(String name, int versions) throws Exception {
+        final File folder = new File(temporary, name);
+
+        try(Git git = Git.init().setDirectory(folder).call()){
+            for(int version = 0; version < versions; ++version){
+                FileUtils.writeStringToFile(new File(folder, "test.robot"), String.format(
+                        "*** Test Cases ***%nVersion %d%n    Log    version %d%n", version, version
+                ), StandardCharsets.UTF_8);
+
+                final PersonIdent author = new PersonIdent("ikora", "ikora@example.com",
+                        Date.from(START.plus(version, ChronoUnit.DAYS)), TimeZone.getTimeZone("UTC"));
+
+                git.add().addFilepattern(".").call();
+                git.commit().setMessage(String.format("Version %d", version)).setAuthor(author).setCommitter(author).call();
+            }
+        }
+
+        return folder;
+    }
+
+    private static String getBranch(File repository) throws Exception {
+        try(Git git = Git.open(repository)){
+            return git.getRepository().getBranch();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package lu.uni.serval.ikora.evolution.versions;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefetchIteratorTest {
+    @Test
+    void testIteratesOverAllValuesInOrder() throws IOException {
+        final List<Integer> values = new ArrayList<>();
+
+        try(PrefetchIterator<Integer> iterator = new PrefetchIterator<>(Arrays.asList(1, 2, 3).iterator(), 1)){
+            while(iterator.hasNext()){
+                values.add(iterator.next());
+            }
+
+            assertThrows(NoSuchElementException.class, iterator::next);
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3), values);
+    }
+
+    @Test
+    void testRuntimeExceptionFromSourceIsRethrown() throws IOException {
+        try(PrefetchIterator<Integer> iterator = new PrefetchIterator<>(new FailingIterator(2, new IllegalArgumentException("broken")), 2)){
+            assertEquals(0, (int) iterator.next());
+            assertEquals(1, (int) iterator.next());
+
+            final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, iterator::next);
+            assertEquals("broken", exception.getMessage());
+        }
+    }
+
+    @Test
+    void testErrorFromSourceIsRethrown() throws IOException {
+        try(PrefetchIterator<Integer> iterator = new PrefetchIterator<>(new FailingIterator(1, new OutOfMemoryError("no more memory")), 2)){
+            assertEquals(0, (int) iterator.next());
+            assertTrue(iterator.hasNext());
+            assertThrows(OutOfMemoryError.class, iterator::next);
+        }
+    }
+
+    @Test
+    void testEarlyCloseStopsLoader() throws IOException, InterruptedException {
+        final AtomicInteger loaded = new AtomicInteger(0);
+        final Iterator<Integer> infinite = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                return loaded.getAndIncrement();
+            }
+        };
+
+        final PrefetchIterator<Integer> iterator = new PrefetchIterator<>(infinite, 1);
+        assertEquals(0, (int) iterator.next());
+        iterator.close();
+
+        final int count = loaded.get();
+        Thread.sleep(50);
+        assertEquals(count, loaded.get());
+    }
+
+    @Test
+    void testCloseFailsWhenLoaderDoesNotStop() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Iterator<Integer> stuck = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                started.countDown();
+
+                while(release.getCount() > 0){
+                    Thread.onSpinWait();
+                }
+
+                return 0;
+            }
+        };
+
+        final PrefetchIterator<Integer> iterator = new PrefetchIterator<>(stuck, 1, Duration.ofMillis(50));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        try{
+            assertThrows(IOException.class, iterator::close);
+        }
+        finally {
+            release.countDown();
+        }
+    }
+
+    private static class FailingIterator implements Iterator<Integer> {
+        private final int failAt;
+        private final Throwable error;
+        private int current = 0;
+
+        FailingIterator(int failAt, Throwable error){
+            this.failAt = failAt;
+            this.error = error;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return true;
+        }
+
+        @Override
+        public Integer next() {
+            if(current == failAt){
+                if(error instanceof Error){
+                    throw (Error)error;
+                }
+
+                throw (RuntimeException)error;
+            }
+
+            return current++;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package lu.uni.serval.ikora.evolution.versions;
+
+/*-
+ * #%L
+ * Ikora Evolution
+ * %%
+ * Copyright (C) 2020 - 2022 University of Luxembourg
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lu.uni.serval.ikora.core.BuildConfiguration;
+import lu.uni.serval.ikora.core.analytics.clones.KeywordCloneDetection;
+import lu.uni.serval.ikora.core.builder.Builder;
+import lu.uni.serval.ikora.core.model.Projects;
+import lu.uni.serval.ikora.core.model.TestCase;
+import lu.uni.serval.ikora.core.utils.FileUtils;
+import lu.uni.serval.ikora.evolution.configuration.CacheConfiguration;
+import lu.uni.serval.ikora.evolution.smells.SmellCache;
+import lu.uni.serval.ikora.evolution.smells.SmellChecks;
+import lu.uni.serval.ikora.smells.SmellConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotCacheTest {
+    @TempDir
+    File temporary;
+
+    @Test
+    void testGetReturnsStoredSnapshot() throws IOException {
+        final SnapshotCache cache = new SnapshotCache(new File(temporary, "cache"), 1024 * 1024);
+        cache.put("repo-1", createSource("repo", 16), f -> true).close();
+
+        final Optional<SnapshotCache.Lease> snapshot = cache.acquire("repo-1");
+
+        assertTrue(snapshot.isPresent());
+        assertTrue(new File(snapshot.get().getFolder(), "repo/file.txt").exists());
+        snapshot.get().close();
+        assertFalse(isCached(cache, "repo-2"));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedSnapshot() throws IOException {
+        final SnapshotCache cache = new SnapshotCache(new File(temporary, "cache"), 2500);
+        final File source = createSource("repo", 1000);
+
+        cache.put("repo-1", source, f -> true).close();
+        cache.put("repo-2", source, f -> true).close();
+        assertTrue(isCached(cache, "repo-1"));
+
+        cache.put("repo-3", source, f -> true).close();
+
+        assertTrue(isCached(cache, "repo-1"));
+        assertFalse(isCached(cache, "repo-2"));
+        assertTrue(isCached(cache, "repo-3"));
+        assertFalse(new File(temporary, "cache/repo-2").exists());
+    }
+
+    @Test
+    void testLeasedSnapshotIsNotEvicted() throws IOException {
+        final SnapshotCache cache = new SnapshotCache(new File(temporary, "cache"), 1500);
+        final File source = createSource("repo", 1000);
+
+        final SnapshotCache.Lease lease = cache.put("repo-1", source, f -> true);
+        cache.put("repo-2", source, f -> true).close();
+
+        assertTrue(new File(lease.getFolder(), "repo/file.txt").exists());
+        assertTrue(isCached(cache, "repo-2"));
+
+        lease.close();
+        cache.put("repo-3", source, f -> true).close();
+
+        assertFalse(isCached(cache, "repo-1"));
+        assertFalse(isCached(cache, "repo-2"));
+        assertTrue(isCached(cache, "repo-3"));
+    }
+
+    @Test
+    void testKeepsSnapshotLargerThanCapacity() throws IOException {
+        final SnapshotCache cache = new SnapshotCache(new File(temporary, "cache"), 10);
+        final File source = createSource("repo", 1000);
+
+        cache.put("repo-1", source, f -> true).close();
+        cache.put("repo-2", source, f -> true).close();
+
+        assertFalse(isCached(cache, "repo-1"));
+        assertTrue(isCached(cache, "repo-2"));
+    }
+
+    @Test
+    void testReloadRestoresSnapshotsFromDisk() throws IOException {
+        final File location = new File(temporary, "cache");
+        new SnapshotCache(location, 1024 * 1024).put("repo-1", createSource("repo", 16), f -> true).close();
+
+        assertTrue(isCached(new SnapshotCache(location, 1024 * 1024), "repo-1"));
+    }
+
+    @Test
+    void testSharedLocationWithSmellCache() throws Exception {
+        final CacheConfiguration cacheConfiguration = new CacheConfiguration();
+        cacheConfiguration.setLocation(new File(temporary, "cache"));
+
+        final Projects version = Builder.build(FileUtils.getResourceFile("history/v1"), new BuildConfiguration(), true).getProjects();
+        final SmellConfiguration smellConfiguration = new SmellConfiguration();
+        smellConfiguration.setClones(KeywordCloneDetection.findClones(version));
+
+        for(int run = 0; run < 2; ++run){
+            final SnapshotCache snapshotCache = new SnapshotCache(cacheConfiguration.getSnapshotLocation(), 0);
+            snapshotCache.put("repo-" + run, createSource("repo", 1000), f -> true).close();
+
+            final SmellCache smellCache = new SmellCache(new SmellChecks(), cacheConfiguration.getSmellLocation(), true);
+
+            for(TestCase testCase: version.getTestCases()){
+                smellCache.computeMetrics(version, testCase, smellConfiguration);
+            }
+
+            assertTrue(isCached(snapshotCache, "repo-" + run));
+            assertEquals(run == 0 ? 0 : version.getTestCases().size(), smellCache.getHits());
+        }
+
+        assertFalse(new File(cacheConfiguration.getSnapshotLocation(), "repo-0").exists());
+        assertTrue(cacheConfiguration.getSmellLocation().exists());
+    }
+
+    private static boolean isCached(SnapshotCache cache, String key){
+        final Optional<SnapshotCache.Lease> lease = cache.acquire(key);
+        lease.ifPresent(SnapshotCache.Lease::close);
+
+        return lease.isPresent();
+    }
+
+    private File createSource(String name, int size) throws IOException {
+        final File source = new File(new File(temporary, "sources"), name);
+        final File file = new File(source, "file.txt");
+
+        if(!file.exists()){
+            Files.createDirectories(source.toPath());
+            Files.write(file.toPath(), "x".repeat(size).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return source;
+    }
+}
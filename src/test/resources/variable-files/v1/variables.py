@@ -0,0 +1,2 @@
+USERNAME_FIELD = "username_field"
+BUTTON_FIELD = "login_button"